@@ -0,0 +1,78 @@
+package org.karina.model.diff;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.FieldPointer;
+import org.karina.model.model.pointer.MethodPointer;
+
+import java.util.List;
+import java.util.Objects;
+
+/// The structural difference between two snapshots of a [Model].
+///
+/// Classes are matched by binary name, methods and fields by name and descriptor.
+/// A class or member is changed when its content fingerprint differs,
+/// where the location a class was loaded from is not part of the content.
+///
+/// Pointers of added classes and members are valid in the `after` model,
+/// pointers of removed classes and members in the `before` model
+/// and pointers of changed classes and members in both.
+///
+/// @param addedClasses   classes only in the `after` model
+/// @param removedClasses classes only in the `before` model
+/// @param changedClasses classes in both models with different content
+public record ModelDiff(
+        @Unmodifiable List<ClassPointer> addedClasses,
+        @Unmodifiable List<ClassPointer> removedClasses,
+        @Unmodifiable List<ClassDiff> changedClasses
+) {
+
+    /// Compares two models in parallel.
+    ///
+    /// Classes that are the same instance in both models are skipped without hashing.
+    /// Other classes are first compared by [ClassModel#fingerprint(Model)], which linked classes
+    /// compute once, and only classes with different fingerprints are compared member by member.
+    ///
+    /// @param before the old model
+    /// @param after  the new model
+    /// @return the difference between both models
+    /// @throws NullPointerException if `before` or `after` is `null`
+    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> new", pure = true)
+    public static ModelDiff of(Model before, Model after) {
+        Objects.requireNonNull(before, "Before model cannot be null");
+        Objects.requireNonNull(after, "After model cannot be null");
+        return ModelDiffer.diff(before, after);
+    }
+
+    /// @return `true` if both models have the same content
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return this.addedClasses.isEmpty() && this.removedClasses.isEmpty() && this.changedClasses.isEmpty();
+    }
+
+
+    /// The difference of a class present in both models.
+    ///
+    /// @param pointer        the class
+    /// @param headerChanged  if anything besides the fields and methods changed, like flags, super types or annotations
+    /// @param addedMethods   methods only in the `after` model
+    /// @param removedMethods methods only in the `before` model
+    /// @param changedMethods methods in both models with different content
+    /// @param addedFields    fields only in the `after` model
+    /// @param removedFields  fields only in the `before` model
+    /// @param changedFields  fields in both models with different content
+    public record ClassDiff(
+            ClassPointer pointer,
+            boolean headerChanged,
+            @Unmodifiable List<MethodPointer> addedMethods,
+            @Unmodifiable List<MethodPointer> removedMethods,
+            @Unmodifiable List<MethodPointer> changedMethods,
+            @Unmodifiable List<FieldPointer> addedFields,
+            @Unmodifiable List<FieldPointer> removedFields,
+            @Unmodifiable List<FieldPointer> changedFields
+    ) {}
+
+}
@@ -0,0 +1,124 @@
+package org.karina.model.diff;
+
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.FieldModel;
+import org.karina.model.model.Fingerprints;
+import org.karina.model.model.MethodModel;
+import org.karina.model.model.Model;
+
+import java.util.*;
+import java.util.function.Function;
+
+/// Computes a [ModelDiff], see [ModelDiff#of(Model, Model)].
+final class ModelDiffer {
+
+    private ModelDiffer() {}
+
+    static ModelDiff diff(Model before, Model after) {
+        var addedClasses = after.classes().parallelStream()
+                                .filter(classModel -> before.getClassPointer(classModel.binaryName()) == null)
+                                .map(ClassModel::classPointer)
+                                .toList();
+
+        var removedClasses = before.classes().parallelStream()
+                                   .filter(classModel -> after.getClassPointer(classModel.binaryName()) == null)
+                                   .map(ClassModel::classPointer)
+                                   .toList();
+
+        var changedClasses = after.classes().parallelStream()
+                                  .map(classModel -> {
+                                      var pointer = before.getClassPointer(classModel.binaryName());
+                                      if (pointer == null) {
+                                          return null;
+                                      }
+                                      return diffClass(before.getClass(pointer), before, classModel, after);
+                                  })
+                                  .filter(Objects::nonNull)
+                                  .toList();
+
+        return new ModelDiff(addedClasses, removedClasses, changedClasses);
+    }
+
+    /// @return the difference, or `null` if both classes have the same content
+    private static @Nullable ModelDiff.ClassDiff diffClass(
+            ClassModel beforeClass,
+            Model before,
+            ClassModel afterClass,
+            Model after
+    ) {
+        if (beforeClass == afterClass || beforeClass.fingerprint(before) == afterClass.fingerprint(after)) {
+            return null;
+        }
+
+        var beforeHeader = Fingerprints.ofHeader(beforeClass, before);
+        var afterHeader = Fingerprints.ofHeader(afterClass, after);
+        var beforeFields = fields(beforeClass, before);
+        var afterFields = fields(afterClass, after);
+        var beforeMethods = methods(beforeClass, before);
+        var afterMethods = methods(afterClass, after);
+
+        var methods = diffMembers(beforeMethods, afterMethods, MethodModel::pointer);
+        var fields = diffMembers(beforeFields, afterFields, FieldModel::pointer);
+
+        return new ModelDiff.ClassDiff(
+                afterClass.classPointer(),
+                beforeHeader != afterHeader,
+                methods.added,
+                methods.removed,
+                methods.changed,
+                fields.added,
+                fields.removed,
+                fields.changed
+        );
+    }
+
+    private static Map<String, Member<FieldModel>> fields(ClassModel classModel, Model model) {
+        var fields = new HashMap<String, Member<FieldModel>>();
+        for (var field : classModel.fields()) {
+            var key = field.name() + ":" + field.descriptor(model);
+            fields.put(key, new Member<>(field, field.fingerprint(model)));
+        }
+        return fields;
+    }
+
+    private static Map<String, Member<MethodModel>> methods(ClassModel classModel, Model model) {
+        var methods = new HashMap<String, Member<MethodModel>>();
+        for (var method : classModel.methods()) {
+            var key = method.name() + method.descriptor(model);
+            methods.put(key, new Member<>(method, method.fingerprint(model)));
+        }
+        return methods;
+    }
+
+    private static <T, P> MemberDiff<P> diffMembers(
+            Map<String, Member<T>> before,
+            Map<String, Member<T>> after,
+            Function<T, P> pointer
+    ) {
+        var added = new ArrayList<P>();
+        var changed = new ArrayList<P>();
+        for (var entry : after.entrySet()) {
+            var beforeMember = before.get(entry.getKey());
+            if (beforeMember == null) {
+                added.add(pointer.apply(entry.getValue().member()));
+            } else if (beforeMember.fingerprint() != entry.getValue().fingerprint()) {
+                changed.add(pointer.apply(entry.getValue().member()));
+            }
+        }
+
+        var removed = new ArrayList<P>();
+        for (var entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                removed.add(pointer.apply(entry.getValue().member()));
+            }
+        }
+
+        return new MemberDiff<>(List.copyOf(added), List.copyOf(removed), List.copyOf(changed));
+    }
+
+    private record Member<T>(T member, long fingerprint) {}
+
+    private record MemberDiff<P>(List<P> added, List<P> removed, List<P> changed) {}
+
+}
@@ -7,6 +7,7 @@ import org.karina.model.model.ClassModel;
 import org.karina.model.model.FieldModel;
 import org.karina.model.model.GenericModel;
 import org.karina.model.model.MethodModel;
+import org.karina.model.model.pointer.ClassPointer;
 import org.karina.model.typing.types.Type;
 
 public sealed abstract class ClassVerifyException extends RuntimeException {
@@ -72,6 +73,21 @@ public sealed abstract class ClassVerifyException extends RuntimeException {
     }
 
 
+    @Getter
+    @Accessors(fluent = true)
+    public static final class InvalidPermittedSubclassException extends ClassVerifyException {
+        private final ClassModel classModel;
+        private final ClassPointer permittedSubclass;
+
+        public InvalidPermittedSubclassException(ClassModel classModel, ClassPointer permittedSubclass, String message) {
+            super(message);
+            this.classModel = classModel;
+            this.permittedSubclass = permittedSubclass;
+        }
+
+    }
+
+
     @Getter
     @Accessors(fluent = true)
     @RequiredArgsConstructor
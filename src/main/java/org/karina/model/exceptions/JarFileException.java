@@ -18,6 +18,9 @@ public sealed abstract class JarFileException extends RuntimeException {
     public JarFileException(String message) {
         super(message);
     }
+    public JarFileException(String message, Throwable cause) {
+        super(message, cause);
+    }
 
     @Getter
     @Accessors(fluent = true)
@@ -71,4 +74,23 @@ public sealed abstract class JarFileException extends RuntimeException {
             return "Invalid signature '" + signature + "' at index " + index + " in class " + identifier.identifier() + ": " + message;
         }
     }
+
+
+    /// Thrown when a reclaimed class body can not be read again from its archive,
+    /// e.g. because the archive was moved or modified after loading.
+    @Getter
+    @Accessors(fluent = true)
+    public static final class ClassReloadException extends JarFileException {
+        private final LoadedClassIdentifier identifier;
+
+        public ClassReloadException(LoadedClassIdentifier identifier, String message, Throwable cause) {
+            super(message + " (in class " + identifier.identifier() + ")", cause);
+            this.identifier = identifier;
+        }
+
+        public ClassReloadException(LoadedClassIdentifier identifier, String message) {
+            super(message + " (in class " + identifier.identifier() + ")");
+            this.identifier = identifier;
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package org.karina.model.loading.jar;
+
+import org.karina.model.model.Annotation;
+import org.karina.model.model.FieldModel;
+import org.karina.model.model.MethodModel;
+
+import java.util.List;
+
+/// The members and annotations of a class, the part of a class that can be re-read from its archive.
+///
+/// @param annotations a non-mutable list of the class annotations
+/// @param fields      a non-mutable list of fields
+/// @param methods     a non-mutable list of methods
+record ClassBody(
+        List<Annotation> annotations,
+        List<? extends FieldModel> fields,
+        List<? extends MethodModel> methods
+) {}
@@ -0,0 +1,15 @@
+package org.karina.model.loading.jar;
+
+import org.karina.model.util.LoadedClassIdentifier;
+
+/// A class of an unlinked model with the same binary name as an existing class,
+/// see [ModelLinker#findDuplicates(UnlinkedModel)].
+///
+/// @param binaryName         the binary name of both classes
+/// @param identifier         the identifier of the unlinked class
+/// @param existingIdentifier the identifier of the existing class
+public record ClassConflict(
+        String binaryName,
+        LoadedClassIdentifier identifier,
+        LoadedClassIdentifier existingIdentifier
+) {}
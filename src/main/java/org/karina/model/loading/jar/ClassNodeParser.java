@@ -8,8 +8,11 @@ import org.karina.model.exceptions.JarFileException;
 import org.karina.model.loading.jar.signature.ClassSignature;
 import org.karina.model.loading.jar.signature.SignatureParser;
 import org.karina.model.model.*;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.model.pointer.ClassPointer;
 import org.karina.model.util.Flags;
 import org.karina.model.util.LoadedClassIdentifier;
+import org.objectweb.asm.tree.AnnotationNode;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.util.*;
@@ -45,8 +48,6 @@ public final class ClassNodeParser {
         var enclosingMethodName = node.outerMethod;
         var enclosingMethodDesc = node.outerMethodDesc;
 
-        var annotations = List.<Annotation>of(); // empty for now
-
         var nestedClasses = new HashMap<String, String>();
         var nestResult = getNestedArgs(identifier, node, nestedClasses);
         var innerInfo = nestResult.inner();
@@ -57,9 +58,7 @@ public final class ClassNodeParser {
 
         var permittedSubclasses = Objects.requireNonNullElse(node.permittedSubclasses, List.<String>of());
 
-        var fields = List.<FieldModel>of(); // empty for now
-        var methods = List.<MethodModel>of(); // empty for now
-
+        var body = parseBody(identifier, node);
 
         var unlinked = new UnlinkedClass();
 
@@ -75,18 +74,100 @@ public final class ClassNodeParser {
         unlinked.outerMethodClass = enclosingMethodClass;
         unlinked.outerMethodName = enclosingMethodName;
         unlinked.outerMethodDesc = enclosingMethodDesc;
-        unlinked.annotations = annotations;
+        unlinked.annotations = body.annotations();
         unlinked.nestedInnerClasses = nestedClasses;
         unlinked.outerClass = outerClass;
         unlinked.nestHost = nestHost;
         unlinked.nestMembers = nestMembers;
         unlinked.permittedSubclasses = permittedSubclasses;
-        unlinked.fieldModels = fields;
-        unlinked.methodModels = methods;
+        unlinked.fieldModels = body.fields();
+        unlinked.methodModels = body.methods();
 
         return unlinked;
     }
 
+    /// Parses the members and annotations of a ClassNode.
+    /// Also used to re-read the body of a class that was reclaimed, see [ReclaimableModels].
+    ///
+    /// Only the annotations of the class are parsed, fields and methods are not parsed yet.
+    @Contract(pure = true)
+    static ClassBody parseBody(LoadedClassIdentifier identifier, ClassNode node) {
+        var annotations = new ArrayList<Annotation>();
+        parseAnnotations(identifier, node.visibleAnnotations, true, annotations);
+        parseAnnotations(identifier, node.invisibleAnnotations, false, annotations);
+        var fields = List.<FieldModel>of(); // empty for now
+        var methods = List.<MethodModel>of(); // empty for now
+        return new ClassBody(List.copyOf(annotations), fields, methods);
+    }
+
+    @Contract(mutates = "param4")
+    private static void parseAnnotations(
+            LoadedClassIdentifier identifier,
+            @Nullable List<AnnotationNode> nodes,
+            boolean runtimeVisible,
+            List<Annotation> annotations
+    ) {
+        if (nodes == null) {
+            return;
+        }
+        for (var node : nodes) {
+            annotations.add(parseAnnotation(identifier, node, runtimeVisible));
+        }
+    }
+
+    private static Annotation parseAnnotation(LoadedClassIdentifier identifier, AnnotationNode node, boolean runtimeVisible) {
+        var classPointer = annotationPointer(identifier, node.desc);
+        // the values alternate between the element name and its value
+        var values = Objects.requireNonNullElse(node.values, List.of());
+        var entries = new ArrayList<Annotation.Entry>(values.size() / 2);
+        for (var i = 0; i + 1 < values.size(); i += 2) {
+            var name = (String) values.get(i);
+            entries.add(new Annotation.Entry(name, parseValue(identifier, values.get(i + 1), runtimeVisible)));
+        }
+        return new Annotation(runtimeVisible, classPointer, List.copyOf(entries));
+    }
+
+    /// Byte, char and short values are stored as [Annotation.Value.IntValue].
+    private static Annotation.Value parseValue(LoadedClassIdentifier identifier, Object value, boolean runtimeVisible) {
+        return switch (value) {
+            case String string -> new Annotation.Value.StringValue(string);
+            case Boolean b -> new Annotation.Value.BooleanValue(b);
+            case Byte b -> new Annotation.Value.IntValue(b);
+            case Character c -> new Annotation.Value.IntValue(c);
+            case Short s -> new Annotation.Value.IntValue(s);
+            case Integer i -> new Annotation.Value.IntValue(i);
+            case Long l -> new Annotation.Value.LongValue(l);
+            case Float f -> new Annotation.Value.FloatValue(f);
+            case Double d -> new Annotation.Value.DoubleValue(d);
+            case org.objectweb.asm.Type type -> new Annotation.Value.ClassValue(type.getDescriptor());
+            // enum constants are the descriptor of the enum and the name of the constant
+            case String[] enumValue -> new Annotation.Value.EnumValue(
+                    annotationPointer(identifier, enumValue[0]),
+                    enumValue[1]
+            );
+            case AnnotationNode annotation -> new Annotation.Value.AnnotationValue(
+                    parseAnnotation(identifier, annotation, runtimeVisible)
+            );
+            case List<?> list -> new Annotation.Value.ArrayValue(
+                    list.stream().map(element -> parseValue(identifier, element, runtimeVisible)).toList()
+            );
+            default -> throw new IllegalStateException("Unexpected annotation value " + value.getClass());
+        };
+    }
+
+    /// @param descriptor the descriptor of an annotation interface or enum class, e.g. `Ljava/lang/Deprecated;`
+    /// @throws JarFileException.InvalidClassReferenceException if the descriptor is not a class descriptor
+    private static ClassPointer annotationPointer(LoadedClassIdentifier identifier, String descriptor) {
+        if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || descriptor.charAt(descriptor.length() - 1) != ';') {
+            throw new JarFileException.InvalidClassReferenceException(
+                    identifier,
+                    descriptor,
+                    "Invalid annotation descriptor"
+            );
+        }
+        return SimpleModel.simpleClassPointer(descriptor.substring(1, descriptor.length() - 1));
+    }
+
     @Contract(pure = true, value = "null -> null; !null -> !null")
     private static @Nullable ClassSignature parseSignature(@Nullable String signature) {
         if (signature == null) {
@@ -0,0 +1,147 @@
+package org.karina.model.loading.jar;
+
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.exceptions.InvalidClassPointerException;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.util.Lazy;
+
+import java.util.*;
+
+/// A model linking each class on first access, see [ModelLinker#linkLazily(UnlinkedModel)].
+final class LazyLinkedModel extends SimpleModel {
+    private final Map<String, UnlinkedClass> unlinked;
+
+    LazyLinkedModel(ModelLinker.LinkInstance instance, Map<String, UnlinkedClass> unlinked) {
+        super(new LazyClassMap(instance, unlinked), false);
+        this.unlinked = unlinked;
+    }
+
+    /// Resolves inner classes with the unlinked classes, so that the nested classes are not linked.
+    @Override
+    public @Nullable ClassPointer getInnerClassPointer(ClassPointer outer, String innerName)
+            throws InvalidClassPointerException {
+        var outerClass = getClass(outer);
+        var nestedClasses = this.unlinked.get(outerClass.binaryName()).nestedInnerClasses();
+        var candidate = nestedClasses.get(innerName);
+        if (candidate != null && hasInnerName(candidate, innerName)) {
+            return SimpleModel.simpleClassPointer(candidate);
+        }
+        // the nested class may declare a different inner name than the outer class
+        for (var nestedClass : nestedClasses.values()) {
+            if (hasInnerName(nestedClass, innerName)) {
+                return SimpleModel.simpleClassPointer(nestedClass);
+            }
+        }
+        return null;
+    }
+
+    private boolean hasInnerName(String binaryName, String innerName) {
+        var unlinkedClass = this.unlinked.get(binaryName);
+        if (unlinkedClass == null) {
+            return false;
+        }
+        var innerClassInfo = unlinkedClass.innerClassInfo();
+        return innerClassInfo != null && innerClassInfo.name().equals(innerName);
+    }
+
+    /// Binary name to class, each class is linked once when its value is first read.
+    private static final class LazyClassMap extends AbstractMap<String, ClassModel> {
+        private final Map<String, Lazy<ClassModel>> classes;
+
+        private LazyClassMap(ModelLinker.LinkInstance instance, Map<String, UnlinkedClass> unlinked) {
+            this.classes = new HashMap<>(unlinked.size());
+            for (var entry : unlinked.entrySet()) {
+                var unlinkedClass = entry.getValue();
+                this.classes.put(entry.getKey(), Lazy.of(() -> instance.generate(unlinkedClass)));
+            }
+        }
+
+        @Override
+        public @Nullable ClassModel get(Object key) {
+            var lazy = this.classes.get(key);
+            return lazy == null ? null : lazy.get();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.classes.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return this.classes.size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.unmodifiableSet(this.classes.keySet());
+        }
+
+        @Override
+        public Set<Entry<String, ClassModel>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, ClassModel>> iterator() {
+                    var iterator = LazyClassMap.this.classes.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, ClassModel> next() {
+                            var entry = iterator.next();
+                            return new LazyEntry(entry.getKey(), entry.getValue());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return LazyClassMap.this.classes.size();
+                }
+            };
+        }
+    }
+
+    /// A entry linking its class when the value is read.
+    private static final class LazyEntry implements Map.Entry<String, ClassModel> {
+        private final String key;
+        private final Lazy<ClassModel> value;
+
+        private LazyEntry(String key, Lazy<ClassModel> value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return this.key;
+        }
+
+        @Override
+        public ClassModel getValue() {
+            return this.value.get();
+        }
+
+        @Override
+        public ClassModel setValue(ClassModel value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && this.key.equals(entry.getKey())
+                    && getValue().equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.key.hashCode() ^ getValue().hashCode();
+        }
+    }
+}
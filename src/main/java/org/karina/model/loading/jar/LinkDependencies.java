@@ -0,0 +1,68 @@
+package org.karina.model.loading.jar;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/// The classes every class of a [LinkResult] referred to while it was linked.
+///
+/// A linked class only depends on the classes it refers to by name:
+/// whether they exist and which inner classes they declare.
+/// Only these classes have to be linked again when a class changes.
+///
+/// Also keeps the unlinked classes of the result, as linking a class again needs the unlinked classes it refers to.
+/// Instances are immutable.
+public final class LinkDependencies {
+    /// All unlinked classes of the link result.
+    final Map<String, UnlinkedClass> classes;
+
+    /// class name to the names it refers to
+    private final Map<String, Set<String>> dependencies;
+
+    /// class name to the classes referring to it
+    private final Map<String, Set<String>> dependents;
+
+    LinkDependencies(Map<String, UnlinkedClass> classes, Map<String, Set<String>> dependencies) {
+        this.classes = Map.copyOf(classes);
+        this.dependencies = Map.copyOf(dependencies);
+
+        var dependents = new HashMap<String, Set<String>>();
+        for (var entry : this.dependencies.entrySet()) {
+            for (var dependency : entry.getValue()) {
+                dependents.computeIfAbsent(dependency, ignored -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+        this.dependents = new HashMap<>(dependents.size());
+        for (var entry : dependents.entrySet()) {
+            this.dependents.put(entry.getKey(), Set.copyOf(entry.getValue()));
+        }
+    }
+
+    /// @return the binary names of the classes the class refers to, empty if the class is unknown
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<String> dependencies(String className) {
+        return this.dependencies.getOrDefault(className, Set.of());
+    }
+
+    /// @return the binary names of the classes referring to the class
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<String> dependents(String className) {
+        return this.dependents.getOrDefault(className, Set.of());
+    }
+
+    /// @return the dependencies with the classes replaced, the invalidated classes removed and the relinked classes added
+    @Contract(pure = true)
+    LinkDependencies update(
+            Map<String, UnlinkedClass> classes,
+            Set<String> invalidated,
+            Map<String, Set<String>> relinked
+    ) {
+        var dependencies = new HashMap<>(this.dependencies);
+        dependencies.keySet().removeAll(invalidated);
+        dependencies.putAll(relinked);
+        return new LinkDependencies(classes, dependencies);
+    }
+}
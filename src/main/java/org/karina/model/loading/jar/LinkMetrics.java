@@ -0,0 +1,151 @@
+package org.karina.model.loading.jar;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/// Counters and timings of [ModelLinker#link(UnlinkedModel, LinkMetrics)], for benchmarks and capacity planning.
+///
+/// Class lookups are counted by where they were answered:
+/// - [#localLookups()] by the classes of the linked model
+/// - [#filteredLookups()] by a [org.karina.model.util.ClassNameFilter] of the linker or of the layers of a
+///   [org.karina.model.model.impl.LayeredModel], without probing the existing classes
+/// - [#existingHits()] and [#existingMisses()] by the existing classes
+///
+/// The metrics accumulate over all links they are passed to.
+/// Counters are updated from the linking threads with [LongAdder]s, so recording is cheap and thread-safe.
+/// Reading is consistent once the link returned.
+///
+/// ```java
+/// var metrics = new LinkMetrics();
+/// var model = linker.link(unlinked, metrics);
+/// System.out.println(metrics.slowestClasses(10));
+/// ```
+public final class LinkMetrics {
+    private final LongAdder linkedClasses = new LongAdder();
+    private final LongAdder localLookups = new LongAdder();
+    private final LongAdder filteredLookups = new LongAdder();
+    private final LongAdder existingHits = new LongAdder();
+    private final LongAdder existingMisses = new LongAdder();
+    private final LongAdder innerClassChains = new LongAdder();
+    private final LongAdder innerClassSteps = new LongAdder();
+    private final LongAdder linkNanos = new LongAdder();
+
+    /// binary name to the nanoseconds it took to link the class
+    private final Map<String, Long> classNanos = new ConcurrentHashMap<>();
+
+    /// @return the number of linked classes
+    @Contract(pure = true)
+    public long linkedClasses() {
+        return this.linkedClasses.sum();
+    }
+
+    /// @return the number of class lookups answered by the linked model
+    @Contract(pure = true)
+    public long localLookups() {
+        return this.localLookups.sum();
+    }
+
+    /// @return the number of class lookups skipped by the name filters of the linker or of its layers
+    @Contract(pure = true)
+    public long filteredLookups() {
+        return this.filteredLookups.sum();
+    }
+
+    /// @return the number of class lookups found in the existing classes
+    @Contract(pure = true)
+    public long existingHits() {
+        return this.existingHits.sum();
+    }
+
+    /// @return the number of class lookups not found in the existing classes
+    @Contract(pure = true)
+    public long existingMisses() {
+        return this.existingMisses.sum();
+    }
+
+    /// @return the number of resolved generic signatures of inner classes, like `Outer<T>.Inner`
+    @Contract(pure = true)
+    public long innerClassChains() {
+        return this.innerClassChains.sum();
+    }
+
+    /// @return the number of inner classes resolved while walking [#innerClassChains()]
+    @Contract(pure = true)
+    public long innerClassSteps() {
+        return this.innerClassSteps.sum();
+    }
+
+    /// @return the wall-clock time of all links in nanoseconds, including the computation of fingerprints
+    @Contract(pure = true)
+    public long linkNanos() {
+        return this.linkNanos.sum();
+    }
+
+    /// @return a non-mutable copy of the time it took to link each class, in nanoseconds
+    @Unmodifiable
+    @Contract(pure = true)
+    public Map<String, Long> classNanos() {
+        return Map.copyOf(this.classNanos);
+    }
+
+    /// @param limit the maximum number of classes to return
+    /// @return the binary names and link times of the slowest classes, slowest first
+    /// @throws IllegalArgumentException if `limit` is negative
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<Map.Entry<String, Long>> slowestClasses(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+        return this.classNanos.entrySet().stream()
+                              .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                                              .thenComparing(Map.Entry.comparingByKey()))
+                              .limit(limit)
+                              .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                              .toList();
+    }
+
+    void recordClass(String binaryName, long nanos) {
+        this.linkedClasses.increment();
+        this.classNanos.merge(binaryName, nanos, Long::sum);
+    }
+
+    void recordLocalLookup() {
+        this.localLookups.increment();
+    }
+
+    void recordFilteredLookup() {
+        this.filteredLookups.increment();
+    }
+
+    void recordExistingLookup(boolean found) {
+        (found ? this.existingHits : this.existingMisses).increment();
+    }
+
+    void recordInnerClassChain(int steps) {
+        this.innerClassChains.increment();
+        this.innerClassSteps.add(steps);
+    }
+
+    void recordLink(long nanos) {
+        this.linkNanos.add(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "LinkMetrics{" +
+                "linkedClasses=" + linkedClasses() +
+                ", localLookups=" + localLookups() +
+                ", filteredLookups=" + filteredLookups() +
+                ", existingHits=" + existingHits() +
+                ", existingMisses=" + existingMisses() +
+                ", innerClassChains=" + innerClassChains() +
+                ", innerClassSteps=" + innerClassSteps() +
+                ", linkNanos=" + linkNanos() +
+                '}';
+    }
+}
@@ -0,0 +1,10 @@
+package org.karina.model.loading.jar;
+
+import org.karina.model.model.Model;
+
+/// The result of [ModelLinker#linkWithDependencies(UnlinkedModel)],
+/// to be updated with [ModelLinker#relink(LinkResult, UnlinkedModel, java.util.Collection)].
+///
+/// @param model        the linked model, without the existing classes of the linker
+/// @param dependencies the classes every linked class refers to
+public record LinkResult(Model model, LinkDependencies dependencies) {}
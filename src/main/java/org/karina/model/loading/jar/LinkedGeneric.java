@@ -0,0 +1,16 @@
+package org.karina.model.loading.jar;
+
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.model.GenericModel;
+import org.karina.model.model.pointer.GenericPointer;
+import org.karina.model.typing.types.ReferenceType;
+
+import java.util.List;
+
+/// A type parameter of a linked class.
+record LinkedGeneric(
+        String name,
+        GenericPointer pointer,
+        @Nullable ReferenceType classBound,
+        List<ReferenceType> interfaceBounds
+) implements GenericModel {}
@@ -1,8 +1,8 @@
 package org.karina.model.loading.jar;
 
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 import org.karina.model.model.*;
 import org.karina.model.model.pointer.ClassPointer;
@@ -16,7 +16,7 @@ import java.util.List;
 
 @Getter
 @Accessors(fluent = true)
-@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 class LinkedJavaClass implements ClassModel {
     private final int version;
     private final String binaryName;
@@ -39,6 +39,33 @@ class LinkedJavaClass implements ClassModel {
     private final List<? extends FieldModel> fields;
     private final List<? extends MethodModel> methods;
 
+    /// The fingerprint computed by [#precomputeFingerprint(Model)], only valid if [#fingerprinted] is set.
+    @Getter(AccessLevel.NONE)
+    private long fingerprint;
+
+    /// Publishes [#fingerprint]. Every `long` is a valid fingerprint, so none can mark a missing value.
+    @Getter(AccessLevel.NONE)
+    private volatile boolean fingerprinted;
+
+    /// Computes the fingerprint once, in the model the class was linked in.
+    /// Called by the linker before the linked model is returned.
+    void precomputeFingerprint(Model model) {
+        this.fingerprint = ClassModel.super.fingerprint(model);
+        this.fingerprinted = true;
+    }
+
+    /// Returns the fingerprint precomputed by the linker.
+    /// Fingerprints resolve references by binary name, so it equals the fingerprint in every model
+    /// that can resolve the references of this class.
+    /// Classes of lazily linked models are not precomputed, their fingerprint is resolved in `model` on every call.
+    @Override
+    public long fingerprint(Model model) {
+        if (this.fingerprinted) {
+            return this.fingerprint;
+        }
+        return ClassModel.super.fingerprint(model);
+    }
+
     @Override
     public String toString() {
         return "LinkedJavaClass{" + "binaryName='" + this.binaryName + '\'' + '}';
@@ -0,0 +1,11 @@
+package org.karina.model.loading.jar;
+
+import org.karina.model.util.LoadedClassIdentifier;
+
+/// A reference to a class that is neither part of the linked nor of the existing classes.
+///
+/// @param className   the binary name of the referring class
+/// @param identifier  the identifier of the referring class
+/// @param missingName the binary name of the missing class.
+///                    Missing inner classes are named by their outer class, e.g. `a/Outer$Inner`
+public record MissingReference(String className, LoadedClassIdentifier identifier, String missingName) {}
@@ -1,25 +1,33 @@
 package org.karina.model.loading.jar;
 
-import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.exceptions.InvalidMethodPointerException;
 import org.karina.model.exceptions.JarFileException;
 import org.karina.model.loading.jar.signature.ClassSignature;
+import org.karina.model.loading.jar.signature.TypeArgument;
 import org.karina.model.loading.jar.signature.TypeSignature;
 import org.karina.model.model.ClassModel;
 import org.karina.model.model.GenericModel;
 import org.karina.model.model.Model;
+import org.karina.model.model.impl.LayeredModel;
 import org.karina.model.model.impl.SimpleModel;
 import org.karina.model.model.pointer.ClassPointer;
 import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.typing.GenericArgument;
 import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+import org.karina.model.util.ClassNameFilter;
+import org.karina.model.util.Flags;
+import org.karina.model.util.Lazy;
 import org.karina.model.util.ObjectPath;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
 
 
 public final class ModelLinker {
@@ -27,11 +35,27 @@ public final class ModelLinker {
 
     private final Model existingClasses;
 
+    /// Filter over the names of the existing classes, built on first use.
+    /// References to classes that are not part of the existing classes mostly skip the lookup.
+    private final Lazy<ClassNameFilter> existingNames;
+
 
     @Contract(value = "null -> fail")
     public ModelLinker(Model existingClasses) {
         Objects.requireNonNull(existingClasses, "Existing classes cannot be null");
         this.existingClasses = existingClasses;
+        this.existingNames = Lazy.of(() -> ClassNameFilter.of(existingClasses));
+    }
+
+    /// Creates a linker that links against an ordered chain of models, e.g. the JDK, libraries and generated code.
+    /// The layers are not copied, see [LayeredModel] for how names are resolved, filtered and cached.
+    /// A linked class must not have the same name as a class of any layer.
+    ///
+    /// @param layers the classes to link against, in order of priority
+    /// @throws NullPointerException if `layers` is `null` or contains `null` elements
+    @Contract(value = "null -> fail")
+    public ModelLinker(Model... layers) {
+        this(LayeredModel.of(layers));
     }
 
     private ModelLinker() {
@@ -40,6 +64,11 @@ public final class ModelLinker {
 
     /// Links the given model to the existing classes.
     ///
+    /// Classes are linked in parallel, as linking a class only reads the unlinked and the existing classes.
+    /// Errors are reported deterministically: when linking fails for multiple classes,
+    /// the error of the class with the smallest binary name is thrown
+    /// and the errors of the other classes are added as suppressed exceptions, in order of their binary names.
+    ///
     /// @param model the model to link
     /// @throws NullPointerException if `model` is `null`
     /// @throws JarFileException When any error occurs during linking
@@ -49,22 +78,362 @@ public final class ModelLinker {
     @Contract(pure = true, value = "null -> fail")
     public Model link(UnlinkedModel model) {
         Objects.requireNonNull(model, "UnlinkedModel cannot be null");
-        var classes = model.classes;
-        var instance = new LinkInstance(classes);
+        var linked = Model.of(linkAll(model.classes, model.classes.values(), null, null, null));
+        precomputeFingerprints(linked.classes(), linked);
+        return linked;
+    }
+
+    /// Links the given model like [#link(UnlinkedModel)] and records lookups and timings into the metrics.
+    ///
+    /// @param model   the model to link
+    /// @param metrics receives the counters and timings of this link
+    /// @throws NullPointerException if `model` or `metrics` is `null`
+    /// @throws JarFileException When any error occurs during linking
+    /// @return a new model with linked classes.
+    ///     This Model does not contain existing classes, only the newly linked classes.
+    @Contract(value = "null, _ -> fail; _, null -> fail", mutates = "param2")
+    public Model link(UnlinkedModel model, LinkMetrics metrics) {
+        Objects.requireNonNull(model, "UnlinkedModel cannot be null");
+        Objects.requireNonNull(metrics, "Metrics cannot be null");
+        var start = System.nanoTime();
+        var linked = Model.of(linkAll(model.classes, model.classes.values(), null, null, metrics));
+        precomputeFingerprints(linked.classes(), linked);
+        metrics.recordLink(System.nanoTime() - start);
+        return linked;
+    }
+
+    /// Creates a model that links each class on first access, instead of linking all classes up front.
+    ///
+    /// A class is linked once, when it is looked up with [Model#getClass(ClassPointer)]
+    /// or reached while iterating [Model#classes()]. Looking up pointers and packages does not link classes,
+    /// but indexes over all classes, like [Model#hierarchy()], link every class.
+    /// Errors are thrown by the access that links the invalid class, not by this method.
+    ///
+    /// @param model the model to link
+    /// @throws NullPointerException if `model` is `null`
+    /// @return a new model linking its classes on demand.
+    ///     This Model does not contain existing classes, only the lazily linked classes.
+    @Contract(pure = true, value = "null -> fail")
+    public Model linkLazily(UnlinkedModel model) {
+        Objects.requireNonNull(model, "UnlinkedModel cannot be null");
+        return new LazyLinkedModel(new LinkInstance(model.classes, null, null, new TypeInterner(), null), model.classes);
+    }
+
+    /// Links the given model like [#link(UnlinkedModel)] and records the classes every class refers to,
+    /// so that the result can be updated with [#relink(LinkResult, UnlinkedModel, Collection)].
+    ///
+    /// @param model the model to link
+    /// @throws NullPointerException if `model` is `null`
+    /// @throws JarFileException When any error occurs during linking
+    /// @return the linked model and the recorded dependencies
+    @Contract(pure = true, value = "null -> fail")
+    public LinkResult linkWithDependencies(UnlinkedModel model) {
+        Objects.requireNonNull(model, "UnlinkedModel cannot be null");
+        var dependencies = new HashMap<String, Set<String>>();
+        var linked = Model.of(linkAll(model.classes, model.classes.values(), dependencies, null, null));
+        precomputeFingerprints(linked.classes(), linked);
+        return new LinkResult(linked, new LinkDependencies(model.classes, dependencies));
+    }
+
+    /// Updates a previous link result with changed, added and removed classes.
+    ///
+    /// Only the changed and added classes and the classes referring to a changed or removed class
+    /// are linked again, all other linked classes of the previous result are reused.
+    /// The result is the same as linking the updated unlinked model with [#linkWithDependencies(UnlinkedModel)].
+    /// The previous result must have been created by a linker with the same existing classes.
+    ///
+    /// @param previous the previous link result, it is not modified
+    /// @param changed  the changed and added classes, replacing previous classes with the same name
+    /// @param removed  the binary names of the removed classes
+    /// @throws NullPointerException if any argument is `null`
+    /// @throws IllegalArgumentException if a removed class is not part of the previous result or is also changed
+    /// @throws JarFileException When any error occurs during linking,
+    ///     e.g. when a class still refers to a removed class
+    /// @return the updated model and dependencies
+    @Contract(pure = true, value = "null, _, _ -> fail; _, null, _ -> fail; _, _, null -> fail")
+    public LinkResult relink(LinkResult previous, UnlinkedModel changed, Collection<String> removed) {
+        Objects.requireNonNull(previous, "Previous link result cannot be null");
+        Objects.requireNonNull(changed, "UnlinkedModel cannot be null");
+        Objects.requireNonNull(removed, "Removed classes cannot be null");
+
+        var previousDependencies = previous.dependencies();
+        var classes = new HashMap<>(previousDependencies.classes);
+        for (var name : removed) {
+            if (classes.remove(name) == null) {
+                throw new IllegalArgumentException("Removed class " + name + " is not part of the previous link result");
+            }
+        }
+        for (var unlinkedClass : changed.classes.values()) {
+            if (removed.contains(unlinkedClass.name())) {
+                throw new IllegalArgumentException("Class " + unlinkedClass.name() + " is changed and removed");
+            }
+            classes.put(unlinkedClass.name(), unlinkedClass);
+        }
+
+        // classes referring to a changed class may resolve inner classes differently,
+        // classes referring to a removed class must fail
+        var outdated = new HashSet<>(changed.classes.keySet());
+        for (var name : changed.classes.keySet()) {
+            outdated.addAll(previousDependencies.dependents(name));
+        }
+        for (var name : removed) {
+            outdated.addAll(previousDependencies.dependents(name));
+        }
+        outdated.removeAll(removed);
+
+        var toLink = outdated.stream().map(classes::get).toList();
+        var dependencies = new HashMap<String, Set<String>>();
+        var relinked = linkAll(classes, toLink, dependencies, null, null);
+
         var builder = Model.builder();
-        for (var value : classes.values()) {
-            builder.add(instance.generate(value));
+        for (var classModel : previous.model().classes()) {
+            var name = classModel.binaryName();
+            if (!outdated.contains(name) && !removed.contains(name)) {
+                builder.add(classModel);
+            }
+        }
+        builder.addAll(relinked);
+        var linked = builder.build();
+        precomputeFingerprints(relinked, linked);
+
+        var invalidated = new HashSet<>(outdated);
+        invalidated.addAll(removed);
+        return new LinkResult(linked, previousDependencies.update(classes, invalidated, dependencies));
+    }
+
+    /// Links the given model like [#link(UnlinkedModel)], but does not fail on references to missing classes.
+    ///
+    /// Every missing class is replaced by a phantom class, so that a model
+    /// can be linked against an incomplete classpath and all missing classes are reported in one pass.
+    /// A phantom class is a public, synthetic class without members, generics or interfaces, extending `java/lang/Object`.
+    /// Its identifier is [PhantomLinkResult#PHANTOM].
+    /// References to inner classes of missing classes create phantoms for the inner classes, e.g. `a/Missing$Inner`.
+    ///
+    /// Other errors, like duplicate classes, are still thrown.
+    ///
+    /// @param model the model to link
+    /// @throws NullPointerException if `model` is `null`
+    /// @throws JarFileException When any error other than a missing class occurs during linking
+    /// @return the linked classes and phantom classes, and every missing reference
+    @Contract(pure = true, value = "null -> fail")
+    public PhantomLinkResult linkWithPhantoms(UnlinkedModel model) {
+        Objects.requireNonNull(model, "UnlinkedModel cannot be null");
+        var missing = new ConcurrentLinkedQueue<MissingReference>();
+        var linkedClasses = linkAll(model.classes, model.classes.values(), null, missing, null);
+
+        var references = new ArrayList<>(missing);
+        references.sort(Comparator.comparing(MissingReference::className)
+                                  .thenComparing(MissingReference::missingName));
+
+        var builder = Model.builder();
+        builder.addAll(linkedClasses);
+        var object = new ReferenceType.ClassType(SimpleModel.simpleClassPointer("java/lang/Object"), List.of());
+        var phantoms = new HashSet<String>();
+        for (var reference : references) {
+            var name = reference.missingName();
+            // a linked class is never missing, but a duplicate would fail the whole link
+            if (model.classes.containsKey(name) || !phantoms.add(name)) {
+                continue;
+            }
+            builder.add(ClassModel.builder()
+                                  .binaryName(name)
+                                  .path(ObjectPath.fromBinaryName(name))
+                                  .flags(Flags.PUBLIC | Flags.SYNTHETIC)
+                                  .superClass(name.equals("java/lang/Object") ? null : object)
+                                  .identifier(PhantomLinkResult.PHANTOM)
+                                  .build());
+        }
+        var linked = builder.build();
+        precomputeFingerprints(linked.classes(), linked);
+        return new PhantomLinkResult(linked, List.copyOf(references));
+    }
+
+    /// Finds every class of the given model that has the same name as an existing class, without linking.
+    ///
+    /// Where [#link(UnlinkedModel)] fails on the first duplicate, this reports all of them,
+    /// e.g. as a pre-link check of a classpath with shaded jars.
+    /// When the existing classes are a [LayeredModel], a class is reported once for every layer containing it,
+    /// so classes shadowed by an earlier layer are reported as well.
+    ///
+    /// Each layer is checked with a parallel scan, iterating the smaller name set and probing the larger one.
+    ///
+    /// @param model the model to check
+    /// @throws NullPointerException if `model` is `null`
+    /// @return the conflicts, ordered by binary name and then by layer
+    @Unmodifiable
+    @Contract(pure = true, value = "null -> fail")
+    public List<ClassConflict> findDuplicates(UnlinkedModel model) {
+        Objects.requireNonNull(model, "UnlinkedModel cannot be null");
+        var classes = model.classes;
+        var layers = layers(this.existingClasses);
+
+        var conflicts = new ArrayList<ClassConflict>();
+        for (var layer : layers) {
+            Collection<String> names;
+            if (layer.classes().size() < classes.size()) {
+                names = layer.classes().parallelStream()
+                             .map(ClassModel::binaryName)
+                             .filter(classes::containsKey)
+                             .toList();
+            } else {
+                names = classes.keySet().parallelStream()
+                               .filter(name -> layer.getClassPointer(name) != null)
+                               .toList();
+            }
+            for (var name : names) {
+                var existingClass = layer.getClass(Objects.requireNonNull(layer.getClassPointer(name)));
+                conflicts.add(new ClassConflict(name, classes.get(name).identifier(), existingClass.identifier()));
+            }
+        }
+
+        // the sort is stable, conflicts of the same class stay in order of the layers
+        conflicts.sort(Comparator.comparing(ClassConflict::binaryName));
+        return List.copyOf(conflicts);
+    }
+
+    /// @return the layers of the model, in order of priority
+    private static List<Model> layers(Model model) {
+        if (!(model instanceof LayeredModel layeredModel)) {
+            return List.of(model);
+        }
+        var layers = new ArrayList<Model>();
+        for (var layer : layeredModel.layers()) {
+            layers.addAll(layers(layer));
+        }
+        return layers;
+    }
+
+    /// A [LayeredModel] is checked against the filters of its layers, other existing classes against [#existingNames].
+    ///
+    /// @return `false` if the existing classes do not contain the class
+    private boolean mightExist(String name) {
+        if (this.existingClasses instanceof LayeredModel layeredModel) {
+            return layeredModel.mightContain(name);
+        }
+        return this.existingNames.get().mightContain(name);
+    }
+
+    /// Fingerprints are cached by the linked classes, computing them here keeps later diffs cheap.
+    /// Linked classes may refer to methods and generics of existing classes,
+    /// so the fingerprints are resolved in the linked and the existing classes.
+    private void precomputeFingerprints(Collection<? extends ClassModel> classes, Model linked) {
+        var model = LayeredModel.of(linked, this.existingClasses);
+        classes.parallelStream().forEach(classModel -> {
+            if (classModel instanceof LinkedJavaClass linkedClass) {
+                linkedClass.precomputeFingerprint(model);
+            }
+        });
+    }
+
+    /// Links the classes in parallel.
+    ///
+    /// @param classes      all unlinked classes, used to resolve references
+    /// @param toLink       the classes to link
+    /// @param dependencies receives the names every linked class refers to, `null` to not record them
+    /// @param missing      receives references to missing classes instead of failing, `null` to fail
+    /// @param metrics      receives lookups and timings, `null` to not record them
+    /// @return the linked classes, ordered by binary name
+    private List<ClassModel> linkAll(
+            Map<String, UnlinkedClass> classes,
+            Collection<UnlinkedClass> toLink,
+            @Nullable Map<String, Set<String>> dependencies,
+            @Nullable Queue<MissingReference> missing,
+            @Nullable LinkMetrics metrics
+    ) {
+        var types = new TypeInterner();
+        var instance = new LinkInstance(classes, null, missing, types, metrics);
+
+        var unlinked = toLink.toArray(UnlinkedClass[]::new);
+        Arrays.sort(unlinked, Comparator.comparing(UnlinkedClass::name));
+        var linked = new ClassModel[unlinked.length];
+        var references = new ConcurrentHashMap<String, Set<String>>();
+        var failures = new RuntimeException[unlinked.length];
+
+        IntStream.range(0, unlinked.length).parallel().forEach(i -> {
+            var start = metrics == null ? 0 : System.nanoTime();
+            try {
+                if (dependencies == null) {
+                    linked[i] = instance.generate(unlinked[i]);
+                } else {
+                    var recorded = new HashSet<String>();
+                    linked[i] = new LinkInstance(classes, recorded, missing, types, metrics).generate(unlinked[i]);
+                    recorded.remove(unlinked[i].name());
+                    references.put(unlinked[i].name(), Set.copyOf(recorded));
+                }
+                if (metrics != null) {
+                    metrics.recordClass(unlinked[i].name(), System.nanoTime() - start);
+                }
+            } catch (RuntimeException e) {
+                failures[i] = e;
+            }
+        });
+
+        RuntimeException failure = null;
+        for (var next : failures) {
+            if (next == null) {
+                continue;
+            }
+            if (failure == null) {
+                failure = next;
+            } else {
+                failure.addSuppressed(next);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (dependencies != null) {
+            dependencies.putAll(references);
         }
 
+        return Arrays.asList(linked);
+    }
 
-        return builder.build();
+    /// Looks up a class of the existing classes, without probing them if the name filter rules the name out.
+    ///
+    /// @return the pointer to the existing class, `null` if it does not exist
+    private @Nullable ClassPointer existingClassPointer(String name) {
+        if (!mightExist(name)) {
+            return null;
+        }
+        return this.existingClasses.getClassPointer(name);
     }
 
-    @RequiredArgsConstructor
-    private class LinkInstance {
+    /// Links single classes against a set of unlinked classes and the existing classes of the linker.
+    /// Linking only reads the classes, so a instance can be used from multiple threads,
+    /// unless it records references.
+    class LinkInstance {
         private final Map<String, UnlinkedClass> classes;
 
-        private ClassModel generate(UnlinkedClass un) {
+        /// Receives the names of all looked up classes, `null` if not recorded.
+        private final @Nullable Set<String> references;
+
+        /// Receives references to missing classes, `null` to throw for missing classes.
+        private final @Nullable Queue<MissingReference> missing;
+
+        /// Shares equal types between all linked classes.
+        private final TypeInterner types;
+
+        /// Receives lookups, `null` if not recorded.
+        private final @Nullable LinkMetrics metrics;
+
+        LinkInstance(
+                Map<String, UnlinkedClass> classes,
+                @Nullable Set<String> references,
+                @Nullable Queue<MissingReference> missing,
+                TypeInterner types,
+                @Nullable LinkMetrics metrics
+        ) {
+            this.classes = classes;
+            this.references = references;
+            this.missing = missing;
+            this.types = types;
+            this.metrics = metrics;
+        }
+
+        /// @throws JarFileException When any error occurs during linking
+        ClassModel generate(UnlinkedClass un) {
 
             var path = ObjectPath.fromBinaryName(un.name());
             verifyNoDuplicate(un);
@@ -72,7 +441,7 @@ public final class ModelLinker {
             var classPointer = SimpleModel.simpleClassPointer(un.name());
 
 
-            var generics = parseGenerics(un.signature());
+            var generics = parseGenerics(un, classPointer);
             var superType = getSuperType(un, un.signature(), un.superName());
             var interfaces = getInterfaceTypes(un, un.signature(), un.interfaces());
             var outerClass = verifyNullable(un, un.outerClass());
@@ -136,8 +505,7 @@ public final class ModelLinker {
                             "Outer method descriptor cannot be null when outer method name is provided"
                     );
                 }
-                // TODO look up method pointer
-
+                method = getMethodPointer(outClass, outerMethodClass, outerMethodName, outerMethodDesc);
             }
 
             record SimpleLocalAndAnonymousInfo(
@@ -150,8 +518,36 @@ public final class ModelLinker {
             );
         }
 
+        /// Resolves the enclosing method of a local or anonymous class.
+        ///
+        /// Linked and existing classes are treated the same: the pointer is only set if the class models the method,
+        /// so every pointer stays valid. The methods are only looked up for classes with an EnclosingMethod attribute.
+        ///
+        /// @return the pointer to the method, `null` if the class does not model the method or the class is a phantom
+        private @Nullable MethodPointer getMethodPointer(
+                ClassPointer classPointer,
+                String className,
+                String name,
+                String descriptor
+        ) {
+            var pointer = SimpleModel.simpleMethodPointer(classPointer, name, descriptor);
+            var unlinkedClass = getUnlinkedClass(className);
+            if (unlinkedClass != null) {
+                return unlinkedClass.methodPointers().contains(pointer) ? pointer : null;
+            }
+            if (this.missing != null && ModelLinker.this.existingClasses.getClassPointer(className) == null) {
+                return null;
+            }
+            try {
+                ModelLinker.this.existingClasses.getMethod(pointer);
+                return pointer;
+            } catch (InvalidMethodPointerException ignored) {
+                return null;
+            }
+        }
+
         private void verifyNoDuplicate(UnlinkedClass un) {
-            var existingPtr = ModelLinker.this.existingClasses.getClassPointer(un.name());
+            var existingPtr = existingClassPointer(un.name());
             if (existingPtr != null) {
                 var existingClassModel = ModelLinker.this.existingClasses.getClass(existingPtr);
                 throw new JarFileException.DuplicateClass(
@@ -168,10 +564,10 @@ public final class ModelLinker {
             if (signature == null) {
                 var classPointer = verify(un, superName);
                 //TODO validate that the class has no generics
-                return new ReferenceType.ClassType(
+                return this.types.intern(new ReferenceType.ClassType(
                         classPointer,
                         List.of()
-                );
+                ));
             } else {
                 return getSignature(un, signature.superClass());
             }
@@ -188,7 +584,7 @@ public final class ModelLinker {
                 return interfaces.stream()
                                  .map(ref -> verify(un, ref))
                                  .map(ref ->
-                                         new ReferenceType.ClassType(ref, List.of())
+                                         this.types.intern(new ReferenceType.ClassType(ref, List.of()))
                                  ).toList();
             } else {
                 if (signature.interfaces().size() != interfaces.size()) {
@@ -212,56 +608,191 @@ public final class ModelLinker {
             var ptr = verify(un, binaryName);
             var unlinkedClass = getUnlinkedClass(binaryName);
 
-            // TODO WTF
-            other: for (var simpleClassTypeSignature : signature.inner()) {
+            // binary name of the phantom class `ptr` points to, `null` if the class exists
+            String phantomName = null;
+            if (this.missing != null && unlinkedClass == null
+                    && ModelLinker.this.existingClasses.getClassPointer(binaryName) == null) {
+                phantomName = binaryName;
+            }
+
+            if (this.metrics != null && !signature.inner().isEmpty()) {
+                this.metrics.recordInnerClassChain(signature.inner().size());
+            }
+
+            // every inner class keeps the type of its outer class, like `Outer<T>` of `Outer<T>.Inner<U>`
+            var type = this.types.intern(new ReferenceType.ClassType(ptr, getArguments(un, signature.arguments())));
+            for (var simpleClassTypeSignature : signature.inner()) {
                 var name = simpleClassTypeSignature.name();
-                if (unlinkedClass != null) {
+                if (phantomName != null) {
+                    // inner classes of phantom classes are phantoms as well
+                    phantomName = phantomName + "$" + name;
+                    ptr = missingInnerClass(un, phantomName, name, null);
+                } else if (unlinkedClass != null) {
                     var inner = unlinkedClass.nestedInnerClasses().get(name);
                     var prevName = unlinkedClass.name();
-                    if (inner == null) {
-                        throw new JarFileException.InvalidClassReferenceException(
-                                un.identifier(),
-                                name,
-                                "Cannot find inner class: '" + name + "' in class: '" + prevName + "'"
-                        );
-                    }
-                    unlinkedClass = getUnlinkedClass(inner);
+                    unlinkedClass = inner == null ? null : getUnlinkedClass(inner);
                     if (unlinkedClass == null) {
-                        throw new JarFileException.InvalidClassReferenceException(
-                                un.identifier(),
-                                name,
-                                "Cannot find inner class: '" + name + "' in class: '" + prevName + "'"
-                        );
+                        phantomName = prevName + "$" + name;
+                        ptr = missingInnerClass(un, phantomName, name, prevName);
+                    } else {
+                        ptr = verify(unlinkedClass, inner);
                     }
-                    ptr = verify(unlinkedClass, inner);
                 } else {
-                    var linkedClass = Objects.requireNonNull(getClass(ptr));
-                    for (var nestedClass : linkedClass.nestedClasses()) {
-                        var classModel = ModelLinker.this.existingClasses.getClass(nestedClass);
-                        if (classModel.innerClassInfo() != null) {
-                            if (classModel.innerClassInfo().name().equals(name)) {
-                                ptr = nestedClass;
-                                continue other;
-                            }
+                    var innerPtr = ModelLinker.this.existingClasses.getInnerClassPointer(ptr, name);
+                    if (innerPtr == null) {
+                        var linkedClass = Objects.requireNonNull(getClass(ptr));
+                        phantomName = linkedClass.binaryName() + "$" + name;
+                        ptr = missingInnerClass(un, phantomName, name, linkedClass.binaryName());
+                    } else {
+                        ptr = innerPtr;
+                    }
+                }
+                type = this.types.intern(new ReferenceType.ClassType(
+                        ptr,
+                        getArguments(un, simpleClassTypeSignature.arguments()),
+                        type
+                ));
+            }
+            return type;
+        }
+
+        private List<GenericArgument> getArguments(UnlinkedClass un, List<TypeArgument> arguments) {
+            if (arguments.isEmpty()) {
+                return List.of();
+            }
+            var result = new ArrayList<GenericArgument>(arguments.size());
+            for (var argument : arguments) {
+                GenericArgument generic = switch (argument) {
+                    // an unbounded wildcard is the same as `? extends Object`
+                    case TypeArgument.WildcardTypeArgument ignored ->
+                            new GenericArgument.Covariant(getObjectType(un));
+                    case TypeArgument.InvariantArgument(var type) ->
+                            new GenericArgument.Invariant(getReferenceType(un, type));
+                    case TypeArgument.CovariantArgument(var type) ->
+                            new GenericArgument.Covariant(getReferenceType(un, type));
+                    case TypeArgument.ContravariantArgument(var type) ->
+                            new GenericArgument.Contravariant(getReferenceType(un, type));
+                };
+                result.add(this.types.intern(generic));
+            }
+            return List.copyOf(result);
+        }
+
+        private Type getType(UnlinkedClass un, TypeSignature signature) {
+            return switch (signature) {
+                case TypeSignature.BaseType(var primitiveType) -> primitiveType;
+                case TypeSignature.ReferenceTypeSignature referenceType -> getReferenceType(un, referenceType);
+            };
+        }
+
+        /// @throws JarFileException.InvalidClassReferenceException if the signature is not a reference type
+        private ReferenceType getReferenceType(UnlinkedClass un, TypeSignature signature) {
+            return switch (signature) {
+                case TypeSignature.ReferenceTypeSignature.ClassTypeSignature classType -> getSignature(un, classType);
+                case TypeSignature.ReferenceTypeSignature.ArrayTypeSignature(var component) ->
+                        this.types.intern(new ReferenceType.ArrayType(getType(un, component)));
+                case TypeSignature.ReferenceTypeSignature.TypeVariableSignature(var name) ->
+                        getTypeVariable(un, name);
+                case TypeSignature.BaseType(var primitiveType) -> throw new JarFileException.InvalidClassReferenceException(
+                        un.identifier(),
+                        primitiveType.getDescriptor(Model.EMPTY),
+                        "Primitive type cannot be used as a reference type"
+                );
+            };
+        }
+
+        /// Resolves a type variable in the class and its enclosing classes.
+        /// Type variables of enclosing methods are erased to `java/lang/Object`, as the generics of methods are not linked.
+        ///
+        /// @throws JarFileException.InvalidClassReferenceException if the type variable is not declared
+        private ReferenceType getTypeVariable(UnlinkedClass un, String name) {
+            // type variables of methods are not linked,
+            // in local and anonymous classes they are erased to `java/lang/Object`
+            var inMethod = false;
+
+            @Nullable String scope = un.name();
+            while (scope != null) {
+                var unlinkedClass = getUnlinkedClass(scope);
+                if (unlinkedClass == null) {
+                    break;
+                }
+                var signature = unlinkedClass.signature();
+                if (signature != null) {
+                    for (var typeParameter : signature.typeParameters()) {
+                        if (typeParameter.name().equals(name)) {
+                            var pointer = SimpleModel.simpleGenericPointer(
+                                    SimpleModel.simpleClassPointer(scope),
+                                    name
+                            );
+                            return this.types.intern(new ReferenceType.TypeVariableType(pointer));
                         }
                     }
-                    throw new JarFileException.InvalidClassReferenceException(
-                            un.identifier(),
-                            name,
-                            "Cannot find inner class: '" + name + "' in class: '" + linkedClass.binaryName() + "'"
-                    );
                 }
+                inMethod |= unlinkedClass.outerMethodName() != null;
+                scope = unlinkedClass.outerClass() != null
+                        ? unlinkedClass.outerClass()
+                        : unlinkedClass.outerMethodClass();
+            }
+
+            // the outer classes are existing classes
+            var pointer = scope == null ? null : getPointer(scope);
+            while (pointer != null) {
+                var classModel = ModelLinker.this.existingClasses.getClass(pointer);
+                for (var generic : classModel.generics()) {
+                    if (generic.name().equals(name)) {
+                        return this.types.intern(new ReferenceType.TypeVariableType(generic.pointer()));
+                    }
+                }
+                var enclosingMethod = classModel.enclosingMethod();
+                inMethod |= enclosingMethod != null && enclosingMethod.method() != null;
+                pointer = classModel.outerClass() != null
+                        ? classModel.outerClass()
+                        : enclosingMethod == null ? null : enclosingMethod.classPointer();
             }
 
-            //TODO etc
-            return new ReferenceType.ClassType(
-                    ptr,
-                    List.of()
+            if (inMethod) {
+                return getObjectType(un);
+            }
+            throw new JarFileException.InvalidClassReferenceException(
+                    un.identifier(),
+                    name,
+                    "Cannot find type variable: '" + name + "' in class: '" + un.name() + "'"
             );
+        }
 
+        private ReferenceType.ClassType getObjectType(UnlinkedClass un) {
+            return this.types.intern(new ReferenceType.ClassType(verify(un, "java/lang/Object"), List.of()));
+        }
+
+        /// Records a missing inner class, or throws if missing classes are not recorded.
+        ///
+        /// @param phantomName the binary name of the phantom class
+        /// @param name        the inner name of the missing class
+        /// @param outerName   the binary name of the outer class, `null` if the outer class is a phantom itself
+        /// @throws JarFileException.InvalidClassReferenceException if missing classes are not recorded
+        private ClassPointer missingInnerClass(
+                UnlinkedClass un,
+                String phantomName,
+                String name,
+                @Nullable String outerName
+        ) {
+            if (this.missing == null) {
+                throw new JarFileException.InvalidClassReferenceException(
+                        un.identifier(),
+                        name,
+                        "Cannot find inner class: '" + name + "' in class: '" + outerName + "'"
+                );
+            }
+            return phantom(un, phantomName);
+        }
+
+        private ClassPointer phantom(UnlinkedClass un, String name) {
+            Objects.requireNonNull(this.missing).add(new MissingReference(un.name(), un.identifier(), name));
+            return SimpleModel.simpleClassPointer(name);
         }
 
         private @Nullable UnlinkedClass getUnlinkedClass(String name) {
+            record(name);
             return this.classes.get(name);
         }
 
@@ -270,26 +801,63 @@ public final class ModelLinker {
         }
 
 
-        private List<GenericModel> parseGenerics(@Nullable ClassSignature signature) {
-            if (signature == null) {
+        private List<GenericModel> parseGenerics(UnlinkedClass un, ClassPointer classPointer) {
+            var signature = un.signature();
+            if (signature == null || signature.typeParameters().isEmpty()) {
                 return List.of();
             }
-            // TODO parse generics
-            return List.of();
+            var generics = new ArrayList<GenericModel>(signature.typeParameters().size());
+            for (var typeParameter : signature.typeParameters()) {
+                var classBound = typeParameter.classBound() == null
+                        ? null
+                        : getReferenceType(un, typeParameter.classBound());
+                var interfaceBounds = typeParameter.interfaceBounds().stream()
+                                                   .map(bound -> getReferenceType(un, bound))
+                                                   .toList();
+                generics.add(new LinkedGeneric(
+                        typeParameter.name(),
+                        SimpleModel.simpleGenericPointer(classPointer, typeParameter.name()),
+                        classBound,
+                        interfaceBounds
+                ));
+            }
+            return List.copyOf(generics);
+        }
+
+        private void record(String name) {
+            if (this.references != null) {
+                this.references.add(name);
+            }
         }
 
         private @Nullable ClassPointer getPointer(String name) {
+            record(name);
 
             var classModel = this.classes.get(name);
             if (classModel != null) {
+                if (this.metrics != null) {
+                    this.metrics.recordLocalLookup();
+                }
                 return SimpleModel.simpleClassPointer(name);
             }
             //TODO test for duplicate
 
-            return ModelLinker.this.existingClasses.getClassPointer(name);
+            if (!ModelLinker.this.mightExist(name)) {
+                if (this.metrics != null) {
+                    this.metrics.recordFilteredLookup();
+                }
+                return null;
+            }
+            var pointer = ModelLinker.this.existingClasses.getClassPointer(name);
+            if (this.metrics != null) {
+                this.metrics.recordExistingLookup(pointer != null);
+            }
+            return pointer;
         }
 
 
+        /// Missing classes are recorded as phantoms, if missing classes are recorded.
+        ///
         /// @throws JarFileException.InvalidClassReferenceException if the class does not exist
         private ClassPointer verify(UnlinkedClass unlinkedClass, String name) {
             Objects.requireNonNull(unlinkedClass);
@@ -312,6 +880,9 @@ public final class ModelLinker {
 //            }
 
             var pointer = getPointer(name);
+            if (pointer == null && this.missing != null) {
+                return phantom(unlinkedClass, name);
+            }
             if (pointer == null) {
                 throw new JarFileException.InvalidClassReferenceException(
                         unlinkedClass.identifier(),
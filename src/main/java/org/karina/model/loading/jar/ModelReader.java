@@ -102,6 +102,25 @@ public final class ModelReader {
     }
 
 
+    /// Reads the body of a single class again from its archive.
+    ///
+    /// @param archive    the opened archive of the class
+    /// @param identifier the archive path and the entry name of the class
+    /// @return the members and annotations of the class
+    /// @throws IOException if the entry cannot be read
+    static ClassBody readBody(ZipFile archive, JarClassIdentifier identifier) throws IOException {
+        var entry = archive.getEntry(identifier.className());
+        if (entry == null) {
+            throw new IOException("Missing class entry '" + identifier.className() + "' in jar file");
+        }
+        try (var inputStream = archive.getInputStream(entry)) {
+            var classNode = new ClassNode();
+            new ClassReader(inputStream).accept(classNode, ClassReader.SKIP_FRAMES);
+            return ClassNodeParser.parseBody(identifier, classNode);
+        }
+    }
+
+
     /// @return Map of file names to [ClassReader]
     private static Map<String, ClassReader> getClassReaders(JarInputStream stream) throws IOException {
         var map = new HashMap<String, ClassReader>();
@@ -143,11 +162,11 @@ public final class ModelReader {
 
     /// Build the Model from classes
     private static UnlinkedModel transform(String jarFileId, Map<String, ClassReader> readers) {
-        var modelBuilder = UnlinkedModel.builder();
+        var modelBuilder = UnlinkedModel.concurrentBuilder();
 
         var threads = Runtime.getRuntime().availableProcessors();
         try (var executor = Executors.newFixedThreadPool(threads)){
-            var futures = new ArrayList<Future<UnlinkedClass>>();
+            var futures = new ArrayList<Future<?>>();
 
             for (var entry : readers.entrySet()) {
                 var fileName = entry.getKey();
@@ -161,19 +180,17 @@ public final class ModelReader {
 
                     if (Flags.isModule(classNode.access)) {
                         // skip module-info
-                        return null;
+                        return;
                     }
-                    return ClassNodeParser.parse(identifier, classNode);
+                    modelBuilder.add(ClassNodeParser.parse(identifier, classNode));
                 });
                 futures.add(future);
             }
 
 
+            // the classes are added by the workers, only wait for failures
             for (var future : futures) {
-                var classModel = future.get();
-                if (classModel != null) {
-                    modelBuilder.add(classModel);
-                }
+                future.get();
             }
 
 
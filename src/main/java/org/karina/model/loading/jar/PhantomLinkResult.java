@@ -0,0 +1,31 @@
+package org.karina.model.loading.jar;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.util.ClassIdentifier;
+
+import java.util.List;
+
+/// The result of [ModelLinker#linkWithPhantoms(UnlinkedModel)].
+///
+/// @param model   the linked classes and a phantom class for every missing class
+/// @param missing every missing reference, ordered by referring class and missing name
+public record PhantomLinkResult(Model model, @Unmodifiable List<MissingReference> missing) {
+    /// The identifier of all phantom classes.
+    public static final ClassIdentifier PHANTOM = ClassIdentifier.of("<phantom>");
+
+    /// @return `true` if the linker created the class for a missing reference
+    @Contract(pure = true)
+    public static boolean isPhantom(ClassModel classModel) {
+        return classModel.identifier() == PHANTOM;
+    }
+
+    /// @return the binary names of all missing classes, without duplicates and in order
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<String> missingClasses() {
+        return this.missing.stream().map(MissingReference::missingName).distinct().sorted().toList();
+    }
+}
@@ -0,0 +1,159 @@
+package org.karina.model.loading.jar;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.exceptions.JarFileException;
+import org.karina.model.model.*;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.util.LoadedClassIdentifier;
+import org.karina.model.util.ObjectPath;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.function.Supplier;
+
+/// A class with a pinned header and a softly held body, see [ReclaimableModels].
+///
+/// [#annotations()], [#fields()] and [#methods()] are read from the body.
+/// When the garbage collector cleared the body, it is read again from the archive of the class
+/// and checked against the fingerprint of the original class.
+@Getter
+@Accessors(fluent = true)
+final class ReclaimableClass implements ClassModel {
+    private final int version;
+    private final String binaryName;
+    private final ObjectPath path;
+    private final ClassPointer classPointer;
+    private final int flags;
+    private final @Nullable InnerClassInfo innerClassInfo;
+    private final List<? extends GenericModel> generics;
+    private final @Nullable ReferenceType.ClassType superClass;
+    private final List<? extends ReferenceType.ClassType> interfaces;
+    private final @Nullable String compiledSource;
+    private final LoadedClassIdentifier identifier;
+    private final @Nullable ClassPointer outerClass;
+    private final @Nullable ClassModel.LocalAndAnonymousInfo enclosingMethod;
+    private final List<ClassPointer> nestedClasses;
+    private final @Nullable ClassPointer nestHost;
+    private final List<ClassPointer> nestMembers;
+    private final List<ClassPointer> permittedSubclasses;
+
+    /// The archive to read the body from.
+    @Getter(AccessLevel.NONE)
+    private final JarClassIdentifier archive;
+
+    /// The fingerprint of the original class, so that fingerprints do not load the body.
+    @Getter(AccessLevel.NONE)
+    private final long fingerprint;
+
+    /// The opened archives of the model, shared by all of its classes.
+    @Getter(AccessLevel.NONE)
+    private final ReclaimableModels.Archives archives;
+
+    /// The model containing this class, to verify the fingerprint of a reloaded body.
+    @Getter(AccessLevel.NONE)
+    private final Supplier<Model> model;
+
+    @Getter(AccessLevel.NONE)
+    private volatile SoftReference<ClassBody> body;
+
+    ReclaimableClass(
+            ClassModel classModel,
+            JarClassIdentifier archive,
+            ReclaimableModels.Archives archives,
+            long fingerprint,
+            Supplier<Model> model
+    ) {
+        this.version = classModel.version();
+        this.binaryName = classModel.binaryName();
+        this.path = classModel.path();
+        this.classPointer = classModel.classPointer();
+        this.flags = classModel.flags();
+        this.innerClassInfo = classModel.innerClassInfo();
+        this.generics = classModel.generics();
+        this.superClass = classModel.superClass();
+        this.interfaces = classModel.interfaces();
+        this.compiledSource = classModel.compiledSource();
+        this.identifier = classModel.identifier();
+        this.outerClass = classModel.outerClass();
+        this.enclosingMethod = classModel.enclosingMethod();
+        this.nestedClasses = classModel.nestedClasses();
+        this.nestHost = classModel.nestHost();
+        this.nestMembers = classModel.nestMembers();
+        this.permittedSubclasses = classModel.permittedSubclasses();
+        this.archive = archive;
+        this.archives = archives;
+        this.fingerprint = fingerprint;
+        this.model = model;
+        this.body = new SoftReference<>(new ClassBody(
+                classModel.annotations(),
+                classModel.fields(),
+                classModel.methods()
+        ));
+    }
+
+    @Override
+    public List<Annotation> annotations() {
+        return body().annotations();
+    }
+
+    @Override
+    public List<? extends FieldModel> fields() {
+        return body().fields();
+    }
+
+    @Override
+    public List<? extends MethodModel> methods() {
+        return body().methods();
+    }
+
+    @Override
+    public long fingerprint(Model model) {
+        return this.fingerprint;
+    }
+
+    /// @return `true` if the body is currently in memory
+    boolean isBodyLoaded() {
+        return this.body.get() != null;
+    }
+
+    /// Releases the body, it is read again on the next access.
+    void reclaimBody() {
+        this.body.clear();
+    }
+
+    /// @throws JarFileException.ClassReloadException if the body was reclaimed and the archive cannot be read,
+    ///                                               or the class in the archive changed
+    private ClassBody body() {
+        var body = this.body.get();
+        if (body != null) {
+            return body;
+        }
+        synchronized (this) {
+            // another thread may have read the body while this thread was waiting
+            body = this.body.get();
+            if (body == null) {
+                try {
+                    body = ModelReader.readBody(this.archives.open(this.archive.jarName()), this.archive);
+                } catch (IOException e) {
+                    throw new JarFileException.ClassReloadException(this.identifier, "Cannot read class body again", e);
+                }
+                var reloaded = Fingerprints.ofClass(this, body.annotations(), body.fields(), body.methods(), this.model.get());
+                if (reloaded != this.fingerprint) {
+                    throw new JarFileException.ClassReloadException(this.identifier, "Class changed in archive");
+                }
+                this.body = new SoftReference<>(body);
+            }
+            return body;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReclaimableClass{" + "binaryName='" + this.binaryName + '\'' + '}';
+    }
+}
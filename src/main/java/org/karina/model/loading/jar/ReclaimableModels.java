@@ -0,0 +1,135 @@
+package org.karina.model.loading.jar;
+
+import org.jetbrains.annotations.Contract;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipFile;
+
+/// Creates models whose class bodies can be reclaimed under memory pressure.
+///
+/// Most classes of a large model, like a model of the JDK, are only needed for their header
+/// (name, flags, super types, nesting) after linking.
+/// In a reclaimable model the header of every class stays in memory,
+/// while the annotations, fields and methods are only held by a [java.lang.ref.SoftReference].
+/// When the garbage collector clears a body, it is read again from the archive the class was loaded from
+/// on the next access. Each archive is opened once, on the first reload of one of its classes,
+/// and shared by all classes of the model. It is closed by the cleaner of [ZipFile] once the model is unreachable.
+///
+/// [ClassNodeParser] does not parse fields and methods yet, so for now only the class annotations
+/// are reclaimed, and a model without annotations saves no memory.
+///
+/// Only classes created by a [ModelLinker] from a jar or jmod file that still exists can be reclaimed,
+/// as only their body can be read again. All other classes, like classes edited by a
+/// [org.karina.model.model.ModelTransaction], are kept as they are.
+/// The archives must not be modified while the model is in use, a body that cannot be read again or
+/// does not match the fingerprint of the original class throws a
+/// [org.karina.model.exceptions.JarFileException.ClassReloadException].
+///
+/// ```java
+/// var jdk = ReclaimableModels.of(ModelLinker.DEFAULT.link(ModelReader.fromJMod(path)));
+/// ```
+public final class ReclaimableModels {
+
+    private ReclaimableModels() {}
+
+    /// Creates a model with the same classes, with reclaimable bodies where possible.
+    /// Pointers of the given model stay valid in the new model.
+    ///
+    /// @param model the model to copy
+    /// @return a new model
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static Model of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+
+        // the classes verify reloaded bodies in the new model, which only exists once all classes are wrapped
+        var reclaimable = new AtomicReference<Model>();
+        var archives = new Archives();
+        var classes = new ArrayList<ClassModel>(model.classes().size());
+        for (var classModel : model.classes()) {
+            if (classModel instanceof LinkedJavaClass
+                    && classModel.identifier() instanceof JarClassIdentifier archive
+                    && isArchive(archive)
+            ) {
+                classes.add(new ReclaimableClass(
+                        classModel,
+                        archive,
+                        archives,
+                        classModel.fingerprint(model),
+                        reclaimable::get
+                ));
+            } else {
+                classes.add(classModel);
+            }
+        }
+        var result = Model.of(classes);
+        reclaimable.set(result);
+        return result;
+    }
+
+    /// Releases the loaded bodies of all reclaimable classes of the model, without waiting for the garbage collector.
+    /// The bodies are read again on their next access.
+    ///
+    /// @param model a model created by [#of(Model)]
+    /// @return the number of released bodies
+    public static int reclaim(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        var count = 0;
+        for (var classModel : model.classes()) {
+            if (classModel instanceof ReclaimableClass reclaimable && reclaimable.isBodyLoaded()) {
+                reclaimable.reclaimBody();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /// @return `true` if the class is reclaimable and its body is currently in memory
+    @Contract(pure = true)
+    public static boolean isBodyLoaded(ClassModel classModel) {
+        return classModel instanceof ReclaimableClass reclaimable && reclaimable.isBodyLoaded();
+    }
+
+    /// The archives of one reclaimable model, each opened on its first use.
+    static final class Archives {
+        /// jar name to the opened archive
+        private final Map<String, ZipFile> archives = new ConcurrentHashMap<>();
+
+        /// @throws IOException if the archive cannot be opened
+        ZipFile open(String jarName) throws IOException {
+            var archive = this.archives.get(jarName);
+            if (archive != null) {
+                return archive;
+            }
+            synchronized (this) {
+                // another thread may have opened the archive while this thread was waiting
+                archive = this.archives.get(jarName);
+                if (archive == null) {
+                    archive = new ZipFile(jarName);
+                    this.archives.put(jarName, archive);
+                }
+                return archive;
+            }
+        }
+    }
+
+    /// @return `true` if the jar name of the identifier is a path to an existing file
+    private static boolean isArchive(JarClassIdentifier identifier) {
+        try {
+            return Files.isRegularFile(Path.of(identifier.jarName()));
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package org.karina.model.loading.jar;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Hash-conses the types created while linking.
+///
+/// Types are records, so structurally equal types are equal.
+/// Interning bottom-up shares every equal type and argument, like the many `List<String>` of a model,
+/// and with them their argument lists.
+///
+/// The interner is thread-safe, one interner is shared by all classes of a link.
+final class TypeInterner {
+    private final Map<Object, Object> canonical = new ConcurrentHashMap<>();
+
+    /// @return the first interned value equal to `value`, or `value` itself
+    @SuppressWarnings("unchecked")
+    <T> T intern(T value) {
+        var existing = this.canonical.putIfAbsent(value, value);
+        return existing == null ? value : (T) existing;
+    }
+}
@@ -9,11 +9,15 @@ import org.karina.model.model.Annotation;
 import org.karina.model.model.ClassModel;
 import org.karina.model.model.FieldModel;
 import org.karina.model.model.MethodModel;
+import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.util.Lazy;
 import org.karina.model.util.LoadedClassIdentifier;
 import org.karina.model.util.ObjectPath;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Getter(AccessLevel.PACKAGE)
 @Accessors(fluent = true)
@@ -39,4 +43,14 @@ public final class UnlinkedClass {
     List<String> permittedSubclasses;
     List<? extends FieldModel> fieldModels;
     List<? extends MethodModel> methodModels;
+
+    /// Pointers of the [#methodModels], the methods a linked class can resolve.
+    @Getter(AccessLevel.NONE)
+    private final Lazy<Set<MethodPointer>> methodPointers = Lazy.of(
+            () -> this.methodModels.stream().map(MethodModel::pointer).collect(Collectors.toUnmodifiableSet())
+    );
+
+    Set<MethodPointer> methodPointers() {
+        return this.methodPointers.get();
+    }
 }
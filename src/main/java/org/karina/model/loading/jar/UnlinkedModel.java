@@ -7,6 +7,7 @@ import org.karina.model.exceptions.JarFileException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 ///
 /// Based on [org.karina.model.model.impl.SimpleClassPointer]
@@ -61,6 +62,11 @@ public final class UnlinkedModel {
         return new UnlinkedModelBuilder();
     }
 
+    /// @return a new builder that can be filled from multiple threads at the same time
+    public static ConcurrentUnlinkedModelBuilder concurrentBuilder() {
+        return new ConcurrentUnlinkedModelBuilder();
+    }
+
     /// @throws NullPointerException when model is null
     /// @throws JarFileException.DuplicateClass when two classes have the same name
     @Contract(pure = true, value = "null -> fail")
@@ -105,6 +111,30 @@ public final class UnlinkedModel {
         }
 
 
+        UnlinkedModel build() {
+            var modelMap = new HashMap<>(this.modelMap);
+            return new UnlinkedModel(modelMap);
+        }
+
+    }
+
+    /// A thread-safe variant of [UnlinkedModelBuilder].
+    ///
+    /// Classes can be added from multiple threads at the same time, duplicate detection is atomic.
+    public static final class ConcurrentUnlinkedModelBuilder {
+        private final ConcurrentHashMap<String, UnlinkedClass> modelMap = new ConcurrentHashMap<>();
+
+        ConcurrentUnlinkedModelBuilder() {}
+
+        /// @throws JarFileException.DuplicateClass when two classes have the same name
+        void add(UnlinkedClass classModel) {
+            var existingClassModel = this.modelMap.putIfAbsent(classModel.name(), classModel);
+            if (existingClassModel != null) {
+                throw new JarFileException.DuplicateClass(classModel.identifier(), existingClassModel.identifier());
+            }
+        }
+
+
         UnlinkedModel build() {
             var modelMap = new HashMap<>(this.modelMap);
             return new UnlinkedModel(modelMap);
@@ -172,6 +172,7 @@ public class SignatureParser {
                 yield new TypeSignature.ReferenceTypeSignature.ArrayTypeSignature(innerType);
             }
             case 'T' -> {
+                this.index++;
                 var identifier = parseTypeVariable();
                 yield new TypeSignature.ReferenceTypeSignature.TypeVariableSignature(identifier);
             }
@@ -224,7 +225,7 @@ public class SignatureParser {
         this.index++;
 
         return new TypeSignature.ReferenceTypeSignature.ClassTypeSignature(
-                new ObjectPath(names),
+                ObjectPath.of(names),
                 arguments,
                 suffix
         );
@@ -26,12 +26,17 @@ public record Annotation(boolean runtimeVisible, ClassPointer classPointer, List
         /// @param values a non-mutable list of values for this array. Should always be the same type.
         record ArrayValue(List<Annotation.Value> values) implements Value {}
 
+        /// @param enumType the pointer to the enum class of the constant
+        /// @param enumName the name of the enum constant
+        record EnumValue(ClassPointer enumType, String enumName) implements Value {}
+
+        /// A class literal, like `String.class` or `int.class`.
+        /// @param descriptor the descriptor of the class, e.g. `Ljava/lang/String;` or `I`
+        record ClassValue(String descriptor) implements Value {}
+
         /// A custom user defined value
         record UserDefinedValue(Object object) implements Value {}
 
-//         TODO how to represent enum values?
-//        record EnumValue(ClassPointer enumType, String enumName) implements Value {}
-
         //TODO etc
     }
 
@@ -166,6 +166,18 @@ public interface ClassModel {
     List<? extends MethodModel> methods();
 
 
+    /// A stable content hash of this class, including its fields and methods.
+    /// Independent of [#identifier()] and of the order of fields and methods.
+    ///
+    /// @param model the model to resolve references in
+    /// @return the 64-bit fingerprint of this class
+    /// @see Fingerprints
+    @Contract(pure = true)
+    default long fingerprint(Model model) {
+        return Fingerprints.ofClass(this, model);
+    }
+
+
     /// Information about local and anonymous classes.
     interface LocalAndAnonymousInfo {
 
@@ -0,0 +1,206 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Range;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// A model-scoped table of interned member descriptors.
+///
+/// The descriptor of a [MethodModel] or [FieldModel] depends on the [Model] it is resolved in,
+/// see [MethodModel#descriptor(Model)]. This table computes the descriptor of each member only once
+/// and assigns every distinct descriptor string a unique id.
+/// Two members of the same model have the same descriptor if and only if their ids are equal.
+///
+/// Members are identified by instance, not by equality, and are only referenced weakly,
+/// so the table does not keep members reachable that the model itself has released.
+/// Members implementing [StoredDescriptor] are not registered at all, they supply their id themselves.
+/// Ids are only comparable within the same table.
+///
+/// The table is thread-safe. Racing threads may compute the descriptor of the same member twice,
+/// but always observe the same id.
+///
+/// @see Model#descriptors()
+public final class DescriptorTable {
+
+    /// The model the descriptors are resolved in.
+    private final Model model;
+
+    /// Descriptor to id mapping.
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /// Id to descriptor mapping.
+    private final Map<Integer, String> descriptors = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /// Weakly referenced member instance to descriptor id mapping.
+    /// Keys are [MemberKey]s, lookups use a [MemberProbe] to not allocate a reference per lookup.
+    private final Map<Object, Integer> memberIds = new ConcurrentHashMap<>();
+
+    /// Keys of [#memberIds] whose member was collected.
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    /// @param model the model to resolve the descriptors in
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail", pure = true)
+    public DescriptorTable(Model model) {
+        this.model = Objects.requireNonNull(model, "Model cannot be null");
+    }
+
+    /// Returns the descriptor id of a method, computing its descriptor on the first call.
+    ///
+    /// @param method the method, has to be resolvable in the model of this table
+    /// @return the descriptor id of the method
+    @Contract(value = "null -> fail")
+    public @Range(from = 0, to = Integer.MAX_VALUE) int id(MethodModel method) {
+        Objects.requireNonNull(method, "Method cannot be null");
+        if (method instanceof StoredDescriptor stored) {
+            return stored.descriptorId(this);
+        }
+        var id = this.memberIds.get(new MemberProbe(method));
+        if (id == null) {
+            id = intern(method.descriptor(this.model));
+            register(method, id);
+        }
+        return id;
+    }
+
+    /// Returns the descriptor id of a field, computing its descriptor on the first call.
+    ///
+    /// @param field the field, has to be resolvable in the model of this table
+    /// @return the descriptor id of the field
+    @Contract(value = "null -> fail")
+    public @Range(from = 0, to = Integer.MAX_VALUE) int id(FieldModel field) {
+        Objects.requireNonNull(field, "Field cannot be null");
+        if (field instanceof StoredDescriptor stored) {
+            return stored.descriptorId(this);
+        }
+        var id = this.memberIds.get(new MemberProbe(field));
+        if (id == null) {
+            id = intern(field.descriptor(this.model));
+            register(field, id);
+        }
+        return id;
+    }
+
+    /// Interns a descriptor string, e.g. the descriptor of a pointer.
+    ///
+    /// @param descriptor the descriptor
+    /// @return the id of the descriptor
+    @Contract(value = "null -> fail")
+    public @Range(from = 0, to = Integer.MAX_VALUE) int intern(String descriptor) {
+        Objects.requireNonNull(descriptor, "Descriptor cannot be null");
+        var id = this.ids.get(descriptor);
+        if (id != null) {
+            return id;
+        }
+        return this.ids.computeIfAbsent(descriptor, key -> {
+            var newId = this.nextId.getAndIncrement();
+            this.descriptors.put(newId, key);
+            return newId;
+        });
+    }
+
+    /// Looks up a descriptor string without interning it, e.g. the descriptor of a pointer.
+    /// The descriptor of a member is interned once [#id(MethodModel)] or [#id(FieldModel)] was called for it.
+    ///
+    /// @param descriptor the descriptor
+    /// @return the id of the descriptor, or `-1` if it was not interned yet
+    @Contract(value = "null -> fail", pure = true)
+    public @Range(from = -1, to = Integer.MAX_VALUE) int find(String descriptor) {
+        Objects.requireNonNull(descriptor, "Descriptor cannot be null");
+        var id = this.ids.get(descriptor);
+        return id == null ? -1 : id;
+    }
+
+    /// @param id the id of a descriptor
+    /// @return the interned descriptor string for the id
+    /// @throws IndexOutOfBoundsException if the id is not part of this table
+    @Contract(pure = true)
+    public String descriptor(int id) {
+        var descriptor = this.descriptors.get(id);
+        if (descriptor == null) {
+            throw new IndexOutOfBoundsException("Descriptor id " + id + " is not part of this table");
+        }
+        return descriptor;
+    }
+
+    /// @return the number of distinct descriptors in this table
+    @Contract(pure = true)
+    public int size() {
+        return this.nextId.get();
+    }
+
+    private void register(Object member, int id) {
+        MemberKey key;
+        while ((key = (MemberKey) this.collected.poll()) != null) {
+            this.memberIds.remove(key);
+        }
+        this.memberIds.putIfAbsent(new MemberKey(member, this.collected), id);
+    }
+
+
+    /// A member that stores its descriptor, like the flyweight views of a
+    /// [org.karina.model.model.impl.MappedModel], which are created on every access.
+    /// Registering such members would grow the table with every access,
+    /// so they resolve their id on their own.
+    public interface StoredDescriptor {
+
+        /// @param table the table to resolve the id in
+        /// @return the id of the stored descriptor, as returned by [DescriptorTable#intern(String)] of the `table`
+        int descriptorId(DescriptorTable table);
+    }
+
+    /// Identity key of a weakly referenced member.
+    /// Keys stay equal to themselves after their member was collected, so they can be removed.
+    private static final class MemberKey extends WeakReference<Object> {
+        private final int hash;
+
+        private MemberKey(Object member, ReferenceQueue<Object> queue) {
+            super(member, queue);
+            this.hash = System.identityHashCode(member);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            var member = get();
+            return switch (o) {
+                case MemberKey other -> member != null && member == other.get();
+                case MemberProbe probe -> member == probe.member;
+                case null, default -> false;
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /// Identity lookup key of a strongly referenced member, equal to the [MemberKey] of the same member.
+    private record MemberProbe(Object member) {
+
+        @Override
+        public boolean equals(Object o) {
+            return switch (o) {
+                case MemberProbe other -> this.member == other.member;
+                case MemberKey key -> key.get() == this.member;
+                case null, default -> false;
+            };
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.member);
+        }
+    }
+
+}
@@ -71,4 +71,15 @@ public interface FieldModel {
     default String descriptor(Model model) {
         return this.type().getDescriptor(model);
     }
+
+
+    /// A stable content hash of this field, independent of the class it was loaded from.
+    ///
+    /// @param model the model to resolve references in
+    /// @return the 64-bit fingerprint of this field
+    /// @see Fingerprints
+    @Contract(pure = true)
+    default long fingerprint(Model model) {
+        return Fingerprints.ofField(this, model);
+    }
 }
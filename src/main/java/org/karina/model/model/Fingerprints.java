@@ -0,0 +1,279 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.model.impl.SimpleClassPointer;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.typing.GenericArgument;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+import org.karina.model.util.ContentHasher;
+
+import java.util.Arrays;
+import java.util.List;
+
+/// Stable 64-bit content fingerprints of classes and members.
+///
+/// Fingerprints only depend on the content of a class or member,
+/// not on [ClassModel#identifier()] or the order of fields and methods.
+/// Referenced classes are hashed by binary name, so fingerprints are stable across models and processes
+/// and can be used as keys of persistent caches.
+///
+/// [Annotation.Value.UserDefinedValue]s have no defined encoding, fingerprinting them throws
+/// an [IllegalArgumentException].
+///
+/// @see ClassModel#fingerprint(Model)
+/// @see MethodModel#fingerprint(Model)
+/// @see FieldModel#fingerprint(Model)
+public final class Fingerprints {
+
+    private Fingerprints() {}
+
+    /// @return the fingerprint of the class, including all of its members
+    public static long ofClass(ClassModel classModel, Model model) {
+        return ofClass(classModel, classModel.annotations(), classModel.fields(), classModel.methods(), model);
+    }
+
+    /// The fingerprint of a class with another body, e.g. a body read again from the archive of the class.
+    /// The annotations, fields and methods of `classModel` are not accessed.
+    ///
+    /// @return the fingerprint of the class, with the given annotations and members instead of its own
+    public static long ofClass(
+            ClassModel classModel,
+            List<Annotation> annotations,
+            List<? extends FieldModel> fieldModels,
+            List<? extends MethodModel> methodModels,
+            Model model
+    ) {
+        var fields = new long[fieldModels.size()];
+        for (var i = 0; i < fields.length; i++) {
+            fields[i] = fieldModels.get(i).fingerprint(model);
+        }
+        var methods = new long[methodModels.size()];
+        for (var i = 0; i < methods.length; i++) {
+            methods[i] = methodModels.get(i).fingerprint(model);
+        }
+        return combine(ofHeader(classModel, annotations, model), fields, methods);
+    }
+
+    /// Combines the header and member fingerprints of a class, independent of the member order.
+    /// The arrays are sorted in place.
+    ///
+    /// @return the class fingerprint
+    public static long combine(long header, long[] fields, long[] methods) {
+        Arrays.sort(fields);
+        Arrays.sort(methods);
+        var hasher = new ContentHasher().putLong(header);
+        hasher.putInt(fields.length);
+        for (var field : fields) {
+            hasher.putLong(field);
+        }
+        hasher.putInt(methods.length);
+        for (var method : methods) {
+            hasher.putLong(method);
+        }
+        return hasher.hash();
+    }
+
+    /// @return the fingerprint of the class without its fields and methods
+    public static long ofHeader(ClassModel classModel, Model model) {
+        return ofHeader(classModel, classModel.annotations(), model);
+    }
+
+    private static long ofHeader(ClassModel classModel, List<Annotation> annotations, Model model) {
+        var hasher = new ContentHasher();
+        hasher.putInt(classModel.version());
+        hasher.putString(classModel.binaryName());
+        hasher.putInt(classModel.flags());
+
+        var innerClassInfo = classModel.innerClassInfo();
+        hasher.putBoolean(innerClassInfo != null);
+        if (innerClassInfo != null) {
+            hasher.putString(innerClassInfo.name());
+            hasher.putInt(innerClassInfo.flags());
+        }
+
+        putGenerics(hasher, classModel.generics(), model);
+        putType(hasher, classModel.superClass(), model);
+        putTypes(hasher, classModel.interfaces(), model);
+        hasher.putString(classModel.compiledSource());
+        putPointer(hasher, classModel.outerClass(), model);
+
+        var enclosingMethod = classModel.enclosingMethod();
+        hasher.putBoolean(enclosingMethod != null);
+        if (enclosingMethod != null) {
+            putPointer(hasher, enclosingMethod.classPointer(), model);
+            var method = enclosingMethod.method();
+            hasher.putBoolean(method != null);
+            if (method != null) {
+                var methodModel = model.getMethod(method);
+                hasher.putString(methodModel.name());
+                hasher.putString(methodModel.descriptor(model));
+            }
+        }
+
+        putAnnotations(hasher, annotations, model);
+        putPointers(hasher, classModel.nestedClasses(), model);
+        putPointer(hasher, classModel.nestHost(), model);
+        putPointers(hasher, classModel.nestMembers(), model);
+        putPointers(hasher, classModel.permittedSubclasses(), model);
+        return hasher.hash();
+    }
+
+    /// @return the fingerprint of the method
+    public static long ofMethod(MethodModel method, Model model) {
+        var hasher = new ContentHasher();
+        hasher.putString(method.name());
+        hasher.putInt(method.flags());
+        putGenerics(hasher, method.generics(), model);
+        hasher.putInt(method.parameterNames().size());
+        for (var parameterName : method.parameterNames()) {
+            hasher.putString(parameterName);
+        }
+        putTypes(hasher, method.parameterTypes(), model);
+        putType(hasher, method.returnType(), model);
+        putAnnotations(hasher, method.annotations(), model);
+        putTypes(hasher, method.exceptions(), model);
+        putValue(hasher, method.annotationDefault(), model);
+        hasher.putBoolean(method.hasInstructions());
+        return hasher.hash();
+    }
+
+    /// @return the fingerprint of the field
+    public static long ofField(FieldModel field, Model model) {
+        var hasher = new ContentHasher();
+        hasher.putString(field.name());
+        hasher.putInt(field.flags());
+        hasher.putBoolean(field.isRecordComponent());
+        hasher.putInt(field.recordComponentIndex());
+        putType(hasher, field.type(), model);
+
+        var defaultValue = field.defaultValue();
+        hasher.putString(defaultValue == null ? null : defaultValue.getClass().getName());
+        hasher.putString(defaultValue == null ? null : defaultValue.toString());
+
+        putAnnotations(hasher, field.annotations(), model);
+        return hasher.hash();
+    }
+
+
+    private static void putPointer(ContentHasher hasher, @Nullable ClassPointer pointer, Model model) {
+        hasher.putString(switch (pointer) {
+            case null -> null;
+            case SimpleClassPointer simplePointer -> simplePointer.name();
+            default -> model.getClass(pointer).binaryName();
+        });
+    }
+
+    private static void putPointers(ContentHasher hasher, List<ClassPointer> pointers, Model model) {
+        hasher.putInt(pointers.size());
+        for (var pointer : pointers) {
+            putPointer(hasher, pointer, model);
+        }
+    }
+
+    private static void putTypes(ContentHasher hasher, List<? extends Type> types, Model model) {
+        hasher.putInt(types.size());
+        for (var type : types) {
+            putType(hasher, type, model);
+        }
+    }
+
+    private static void putType(ContentHasher hasher, @Nullable Type type, Model model) {
+        switch (type) {
+            case null -> hasher.putInt(0);
+            case ReferenceType.ClassType classType -> {
+                hasher.putInt(1);
+                putPointer(hasher, classType.pointer(), model);
+                hasher.putInt(classType.implementation().size());
+                for (var argument : classType.implementation()) {
+                    var inner = switch (argument) {
+                        case GenericArgument.Invariant(var invariant) -> {
+                            hasher.putInt(0);
+                            yield invariant;
+                        }
+                        case GenericArgument.Covariant(var covariant) -> {
+                            hasher.putInt(1);
+                            yield covariant;
+                        }
+                        case GenericArgument.Contravariant(var contravariant) -> {
+                            hasher.putInt(2);
+                            yield contravariant;
+                        }
+                    };
+                    putType(hasher, inner, model);
+                }
+                putType(hasher, classType.owner(), model);
+            }
+            case ReferenceType.ArrayType arrayType -> {
+                hasher.putInt(2);
+                putType(hasher, arrayType.component(), model);
+            }
+            case ReferenceType.TypeVariableType typeVariableType -> {
+                hasher.putInt(3);
+                hasher.putString(model.getGenericModel(typeVariableType.pointer()).name());
+            }
+            default -> {
+                // primitives and void
+                hasher.putInt(4);
+                hasher.putString(type.getDescriptor(model));
+            }
+        }
+    }
+
+    private static void putGenerics(ContentHasher hasher, List<? extends GenericModel> generics, Model model) {
+        hasher.putInt(generics.size());
+        for (var generic : generics) {
+            hasher.putString(generic.name());
+            putType(hasher, generic.classBound(), model);
+            putTypes(hasher, generic.interfaceBounds(), model);
+        }
+    }
+
+    private static void putAnnotations(ContentHasher hasher, List<Annotation> annotations, Model model) {
+        hasher.putInt(annotations.size());
+        for (var annotation : annotations) {
+            putAnnotation(hasher, annotation, model);
+        }
+    }
+
+    private static void putAnnotation(ContentHasher hasher, Annotation annotation, Model model) {
+        hasher.putBoolean(annotation.runtimeVisible());
+        putPointer(hasher, annotation.classPointer(), model);
+        hasher.putInt(annotation.values().size());
+        for (var entry : annotation.values()) {
+            hasher.putString(entry.name());
+            putValue(hasher, entry.value(), model);
+        }
+    }
+
+    private static void putValue(ContentHasher hasher, @Nullable Annotation.Value value, Model model) {
+        switch (value) {
+            case null -> hasher.putInt(0);
+            case Annotation.Value.StringValue(var string) -> hasher.putInt(1).putString(string);
+            case Annotation.Value.IntValue(var i) -> hasher.putInt(2).putInt(i);
+            case Annotation.Value.LongValue(var l) -> hasher.putInt(3).putLong(l);
+            case Annotation.Value.FloatValue(var f) -> hasher.putInt(4).putInt(Float.floatToIntBits(f));
+            case Annotation.Value.DoubleValue(var d) -> hasher.putInt(5).putLong(Double.doubleToLongBits(d));
+            case Annotation.Value.BooleanValue(var b) -> hasher.putInt(6).putBoolean(b);
+            case Annotation.Value.AnnotationValue(var annotation) -> {
+                hasher.putInt(7);
+                putAnnotation(hasher, annotation, model);
+            }
+            case Annotation.Value.ArrayValue(var values) -> {
+                hasher.putInt(8).putInt(values.size());
+                for (var element : values) {
+                    putValue(hasher, element, model);
+                }
+            }
+            case Annotation.Value.EnumValue(var enumType, var enumName) -> {
+                hasher.putInt(9);
+                putPointer(hasher, enumType, model);
+                hasher.putString(enumName);
+            }
+            case Annotation.Value.ClassValue(var descriptor) -> hasher.putInt(10).putString(descriptor);
+            case Annotation.Value.UserDefinedValue ignored ->
+                    throw new IllegalArgumentException("User defined annotation values have no stable fingerprint");
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.pointer.ClassPointer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/// A reverse index of the relationships between the classes of a [Model].
+///
+/// [ClassModel] only points upward (super class, interfaces, nest host, outer class).
+/// This index inverts these relations, so that questions like "who extends X" or
+/// "who implements Y" are lookups instead of scans over [Model#classes()].
+///
+/// The direct relations are built in parallel when the index is created,
+/// transitive relations are computed on first request and cached.
+/// All returned sets are unordered and non-mutable.
+///
+/// @see Model#hierarchy()
+public final class HierarchyIndex {
+
+    /// super class to direct subclasses
+    private final Map<ClassPointer, Set<ClassPointer>> directSubclasses;
+
+    /// interface to classes and interfaces directly listing it
+    private final Map<ClassPointer, Set<ClassPointer>> directImplementors;
+
+    /// nest host to classes declaring it as their nest host
+    private final Map<ClassPointer, Set<ClassPointer>> nestMembers;
+
+    /// outer class to classes declaring it as their outer class
+    private final Map<ClassPointer, Set<ClassPointer>> nestedClasses;
+
+    private final Map<ClassPointer, Set<ClassPointer>> subclasses = new ConcurrentHashMap<>();
+    private final Map<ClassPointer, Set<ClassPointer>> subtypes = new ConcurrentHashMap<>();
+
+    private HierarchyIndex(Collection<? extends ClassModel> classes) {
+        this.directSubclasses = group(classes, cls -> {
+            var superClass = cls.superClass();
+            return superClass == null ? Stream.empty() : Stream.of(superClass.pointer());
+        });
+        this.directImplementors = group(classes, cls ->
+                cls.interfaces().stream().map(anInterface -> anInterface.pointer())
+        );
+        this.nestMembers = group(classes, cls -> Stream.ofNullable(cls.nestHost()));
+        this.nestedClasses = group(classes, cls -> Stream.ofNullable(cls.outerClass()));
+    }
+
+    /// Builds the direct relations of all classes in the model.
+    ///
+    /// @param model the model to index
+    /// @return a new index for the model
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static HierarchyIndex of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        return new HierarchyIndex(model.classes());
+    }
+
+    /// @return the classes that directly extend the given class
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<ClassPointer> directSubclasses(ClassPointer pointer) {
+        return this.directSubclasses.getOrDefault(pointer, Set.of());
+    }
+
+    /// @return the classes and interfaces that directly list the given interface
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<ClassPointer> directImplementors(ClassPointer pointer) {
+        return this.directImplementors.getOrDefault(pointer, Set.of());
+    }
+
+    /// @return the classes that declare the given class as their nest host
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<ClassPointer> nestMembers(ClassPointer nestHost) {
+        return this.nestMembers.getOrDefault(nestHost, Set.of());
+    }
+
+    /// @return the classes that declare the given class as their outer class
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<ClassPointer> nestedClasses(ClassPointer outerClass) {
+        return this.nestedClasses.getOrDefault(outerClass, Set.of());
+    }
+
+    /// Transitive version of [#directSubclasses(ClassPointer)].
+    ///
+    /// @return all classes that extend the given class, directly or indirectly
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<ClassPointer> subclasses(ClassPointer pointer) {
+        return this.subclasses.computeIfAbsent(pointer, ptr -> closure(ptr, false));
+    }
+
+    /// All classes and interfaces that are a subtype of the given class or interface,
+    /// either by extending or by implementing it, directly or indirectly.
+    ///
+    /// For an interface this is the set of all implementors and sub-interfaces.
+    ///
+    /// @return all subtypes of the given class or interface, excluding the class itself
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<ClassPointer> subtypes(ClassPointer pointer) {
+        return this.subtypes.computeIfAbsent(pointer, ptr -> closure(ptr, true));
+    }
+
+    /// @return if `pointer` is a direct subclass or direct implementor of `superPointer`
+    @Contract(pure = true)
+    public boolean isDirectSubtype(ClassPointer pointer, ClassPointer superPointer) {
+        return directSubclasses(superPointer).contains(pointer)
+                || directImplementors(superPointer).contains(pointer);
+    }
+
+
+    private Set<ClassPointer> closure(ClassPointer root, boolean includeImplementors) {
+        var result = new HashSet<ClassPointer>();
+        var queue = new ArrayDeque<ClassPointer>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            var current = queue.poll();
+            for (var subclass : directSubclasses(current)) {
+                if (result.add(subclass)) {
+                    queue.add(subclass);
+                }
+            }
+            if (includeImplementors) {
+                for (var implementor : directImplementors(current)) {
+                    if (result.add(implementor)) {
+                        queue.add(implementor);
+                    }
+                }
+            }
+        }
+        result.remove(root);
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static Map<ClassPointer, Set<ClassPointer>> group(
+            Collection<? extends ClassModel> classes,
+            Function<ClassModel, Stream<ClassPointer>> targets
+    ) {
+        return classes.parallelStream()
+                      .flatMap(cls -> targets.apply(cls).map(target -> Map.entry(target, cls.classPointer())))
+                      .collect(Collectors.groupingByConcurrent(
+                              Map.Entry::getKey,
+                              Collectors.mapping(Map.Entry::getValue, Collectors.toUnmodifiableSet())
+                      ));
+    }
+
+}
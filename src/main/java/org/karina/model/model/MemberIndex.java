@@ -0,0 +1,151 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.util.Lazy;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/// Lookup indexes of the classes, methods and fields of a [Model], used to plan queries.
+///
+/// Questions like "which methods are named `of`" or "which fields are annotated with X"
+/// are lookups instead of scans over all members of [Model#classes()].
+///
+/// Every index is built in parallel on its first request and cached,
+/// so a model only pays for the indexes its queries use.
+/// Descriptors are indexed by the ids of [Model#descriptors()],
+/// building a descriptor index computes the descriptor of every member once.
+/// All returned lists are unordered and non-mutable.
+///
+/// @see Model#members()
+/// @see org.karina.model.query.MethodQuery
+public final class MemberIndex {
+    private final Model model;
+
+    private final Lazy<Map<ClassPointer, List<ClassModel>>> annotatedClasses;
+    private final Lazy<Map<String, List<MethodModel>>> methodsByName;
+    private final Lazy<Map<Integer, List<MethodModel>>> methodsByDescriptor;
+    private final Lazy<Map<ClassPointer, List<MethodModel>>> annotatedMethods;
+    private final Lazy<Map<String, List<FieldModel>>> fieldsByName;
+    private final Lazy<Map<Integer, List<FieldModel>>> fieldsByDescriptor;
+    private final Lazy<Map<ClassPointer, List<FieldModel>>> annotatedFields;
+
+    private MemberIndex(Model model) {
+        this.model = model;
+        this.annotatedClasses = Lazy.of(() -> group(
+                classes(),
+                classModel -> annotations(classModel.annotations())
+        ));
+        this.methodsByName = Lazy.of(() -> group(methods(), method -> Stream.of(method.name())));
+        this.methodsByDescriptor = Lazy.of(() -> {
+            var descriptors = this.model.descriptors();
+            return group(methods(), method -> Stream.of(descriptors.id(method)));
+        });
+        this.annotatedMethods = Lazy.of(() -> group(methods(), method -> annotations(method.annotations())));
+        this.fieldsByName = Lazy.of(() -> group(fields(), field -> Stream.of(field.name())));
+        this.fieldsByDescriptor = Lazy.of(() -> {
+            var descriptors = this.model.descriptors();
+            return group(fields(), field -> Stream.of(descriptors.id(field)));
+        });
+        this.annotatedFields = Lazy.of(() -> group(fields(), field -> annotations(field.annotations())));
+    }
+
+    /// Creates the index of a model, without building any of the indexes yet.
+    ///
+    /// @param model the model to index
+    /// @return a new index for the model
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static MemberIndex of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        return new MemberIndex(model);
+    }
+
+    /// @return the classes annotated with the given annotation interface
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<ClassModel> classesAnnotatedWith(ClassPointer annotation) {
+        return this.annotatedClasses.get().getOrDefault(annotation, List.of());
+    }
+
+    /// @return the methods with the given name
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<MethodModel> methodsNamed(String name) {
+        return this.methodsByName.get().getOrDefault(name, List.of());
+    }
+
+    /// @param descriptor the descriptor, e.g. `(Ljava/lang/String;)V`
+    /// @return the methods with the given descriptor
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<MethodModel> methodsWithDescriptor(String descriptor) {
+        // building the index interns the descriptors of all methods
+        var index = this.methodsByDescriptor.get();
+        var id = this.model.descriptors().find(descriptor);
+        return id < 0 ? List.of() : index.getOrDefault(id, List.of());
+    }
+
+    /// @return the methods annotated with the given annotation interface
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<MethodModel> methodsAnnotatedWith(ClassPointer annotation) {
+        return this.annotatedMethods.get().getOrDefault(annotation, List.of());
+    }
+
+    /// @return the fields with the given name
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<FieldModel> fieldsNamed(String name) {
+        return this.fieldsByName.get().getOrDefault(name, List.of());
+    }
+
+    /// @param descriptor the descriptor, e.g. `Ljava/lang/String;`
+    /// @return the fields with the given descriptor
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<FieldModel> fieldsWithDescriptor(String descriptor) {
+        // building the index interns the descriptors of all fields
+        var index = this.fieldsByDescriptor.get();
+        var id = this.model.descriptors().find(descriptor);
+        return id < 0 ? List.of() : index.getOrDefault(id, List.of());
+    }
+
+    /// @return the fields annotated with the given annotation interface
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<FieldModel> fieldsAnnotatedWith(ClassPointer annotation) {
+        return this.annotatedFields.get().getOrDefault(annotation, List.of());
+    }
+
+
+    private Stream<ClassModel> classes() {
+        return this.model.classes().parallelStream().map(ClassModel.class::cast);
+    }
+
+    private Stream<MethodModel> methods() {
+        return classes().flatMap(classModel -> classModel.methods().stream());
+    }
+
+    private Stream<FieldModel> fields() {
+        return classes().flatMap(classModel -> classModel.fields().stream());
+    }
+
+    /// @return the distinct annotation interfaces, an element annotated twice is only indexed once
+    private static Stream<ClassPointer> annotations(List<Annotation> annotations) {
+        return annotations.stream().map(Annotation::classPointer).distinct();
+    }
+
+    private static <K, T> Map<K, List<T>> group(Stream<T> elements, Function<T, Stream<K>> keys) {
+        return elements.flatMap(element -> keys.apply(element).map(key -> Map.entry(key, element)))
+                       .collect(Collectors.groupingByConcurrent(
+                               Map.Entry::getKey,
+                               Collectors.mapping(Map.Entry::getValue, Collectors.toUnmodifiableList())
+                       ));
+    }
+
+}
@@ -94,4 +94,15 @@ public interface MethodModel {
         sb.append(returnType().getDescriptor(model));
         return sb.toString();
     }
+
+
+    /// A stable content hash of this method, independent of the class it was loaded from.
+    ///
+    /// @param model the model to resolve references in
+    /// @return the 64-bit fingerprint of this method
+    /// @see Fingerprints
+    @Contract(pure = true)
+    default long fingerprint(Model model) {
+        return Fingerprints.ofMethod(this, model);
+    }
 }
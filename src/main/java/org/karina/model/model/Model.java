@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.karina.model.exceptions.*;
+import org.karina.model.model.impl.FrozenModel;
 import org.karina.model.model.impl.SimpleModel;
 import org.karina.model.model.pointer.ClassPointer;
 import org.karina.model.model.pointer.FieldPointer;
@@ -12,6 +13,7 @@ import org.karina.model.model.pointer.GenericPointer;
 import org.karina.model.model.pointer.MethodPointer;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /// This interface represents a collection of classes. It provides methods to
 /// retrieve class, field and method models based on pointers.
@@ -70,6 +72,26 @@ public interface Model {
     ClassModel getClass(ClassPointer pointer) throws InvalidClassPointerException;
 
 
+    /// Finds a nested class by its simple name, as used by `Outer<T>.Inner` generic signatures.
+    /// Implementations should answer from an index instead of loading the nested classes.
+    ///
+    /// @param outer     the outer class
+    /// @param innerName the inner name of the nested class, e.g. `Entry` for `java/util/Map$Entry`
+    /// @return the first nested class of `outer` with the inner name, or `null` if there is none
+    /// @throws InvalidClassPointerException if the outer {@link ClassModel} could not be located
+    @Contract(pure = true)
+    default @Nullable ClassPointer getInnerClassPointer(ClassPointer outer, String innerName)
+            throws InvalidClassPointerException {
+        for (var nestedClass : getClass(outer).nestedClasses()) {
+            var innerClassInfo = getClass(nestedClass).innerClassInfo();
+            if (innerClassInfo != null && innerClassInfo.name().equals(innerName)) {
+                return nestedClass;
+            }
+        }
+        return null;
+    }
+
+
     /// @return the current {@link MethodModel} for a given method pointer
     /// @throws InvalidMethodPointerException if the {@link MethodModel} could not be located
     @Contract(pure = true)
@@ -94,6 +116,74 @@ public interface Model {
     Collection<? extends ClassModel> classes();
 
 
+    /// The descriptor table of this model.
+    /// Implementations must return the same table on every call, ids of different tables are not comparable
+    /// and descriptors are only computed once per member of a table.
+    ///
+    /// @return the descriptor table, used to compare member descriptors by id
+    @Contract(pure = true)
+    DescriptorTable descriptors();
+
+
+    /// The reverse hierarchy index of this model.
+    /// Implementations must build the index lazily and return the same index on every call,
+    /// callers like [org.karina.model.query.ClassQuery] do not cache it.
+    ///
+    /// @return the index of subclasses, implementors, nest members and nested classes
+    @Contract(pure = true)
+    HierarchyIndex hierarchy();
+
+
+    /// The package index of this model.
+    /// Implementations must build the index once and return the same index on every call,
+    /// callers like [org.karina.model.verify.Accessors#samePackageName(ClassModel, ClassModel)] do not cache it.
+    ///
+    /// @return the index of the packages of all classes in this model
+    @Contract(pure = true)
+    PackageIndex packages();
+
+
+    /// The member index of this model, used to plan queries.
+    /// Implementations must create the index lazily and return the same index on every call,
+    /// callers like [org.karina.model.query.MethodQuery] do not cache it.
+    ///
+    /// @return the lookup indexes of classes, methods and fields by name, descriptor and annotation
+    @Contract(pure = true)
+    MemberIndex members();
+
+
+    /// Packs this model into a compact, read-only form for models that stay in memory for a long time.
+    /// Pointers of this model stay valid in the frozen model.
+    ///
+    /// @return a frozen copy of this model
+    /// @see FrozenModel
+    @Contract(pure = true)
+    default FrozenModel freeze() {
+        return FrozenModel.freeze(this);
+    }
+
+
+    /// Walks this model and collects counts and estimated heap sizes of its contents.
+    /// The statistics are computed on every call.
+    ///
+    /// @return the statistics of this model
+    /// @see ModelStats
+    @Contract(value = "-> new", pure = true)
+    default ModelStats stats() {
+        return ModelStats.of(this);
+    }
+
+
+    /// Starts a transaction to apply many class, method and field edits to this model at once.
+    ///
+    /// @return a new, empty transaction based on this model
+    /// @see ModelTransaction
+    @Contract(value = "-> new", pure = true)
+    default ModelTransaction transaction() {
+        return new ModelTransaction(this);
+    }
+
+
     static Model of(ClassModel classModel) {
         var modelBuilder = new ModelBuilder();
         modelBuilder.add(classModel);
@@ -140,6 +230,11 @@ public interface Model {
         return modelBuilder;
     }
 
+    /// @return a new builder that can be filled from multiple threads at the same time
+    static ConcurrentModelBuilder concurrentBuilder() {
+        return new ConcurrentModelBuilder();
+    }
+
 
 
     class ModelBuilder {
@@ -209,5 +304,56 @@ public interface Model {
         }
 
 
+    }
+
+
+    /// A thread-safe variant of [ModelBuilder].
+    ///
+    /// Classes can be added from multiple threads at the same time,
+    /// duplicate detection is atomic.
+    /// [#build()] should only be called once all threads finished adding classes.
+    final class ConcurrentModelBuilder {
+        private final ConcurrentHashMap<String, ClassModel> modelMap = new ConcurrentHashMap<>();
+
+        private ConcurrentModelBuilder() {}
+
+
+        /// Adds a Class to the model.
+        ///
+        /// @param classModel the ClassModel to add
+        /// @throws NullPointerException if classModel is null
+        /// @throws DuplicateClassModel  when a ClassModel with the same name already exists in the model
+        @Contract(value = "null -> fail", mutates = "this")
+        public void add(ClassModel classModel) {
+            Objects.requireNonNull(classModel, "ClassModel cannot be null");
+
+            var existingClassModel = this.modelMap.putIfAbsent(classModel.binaryName(), classModel);
+
+            if (existingClassModel != null) {
+                throw new DuplicateClassModel(classModel, existingClassModel);
+            }
+        }
+
+
+        /// Adds a collection of ClassModels to the model.
+        ///
+        /// @param classModels the collection of ClassModels to add
+        /// @throws NullPointerException if the provided collection is null or contains any null elements
+        /// @throws DuplicateClassModel  when a ClassModel with the same name already exists in the model
+        @Contract(value = "null -> fail", mutates = "this")
+        public void addAll(Iterable<? extends ClassModel> classModels) {
+            Objects.requireNonNull(classModels, "ClassModel collection cannot be null");
+
+            for (var cm : classModels) {
+                add(cm);
+            }
+        }
+
+
+        public Model build() {
+            return new SimpleModel(this.modelMap);
+        }
+
+
     }
 }
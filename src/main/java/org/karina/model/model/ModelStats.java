@@ -0,0 +1,430 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.impl.SimpleClassPointer;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.typing.GenericArgument;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+import org.karina.model.util.Footprint;
+import org.karina.model.util.LoadedClassIdentifier;
+import org.karina.model.util.ObjectPath;
+
+import java.util.*;
+
+/// Counts and estimated retained heap sizes of the contents of a [Model].
+///
+/// Every object is counted once, no matter how many classes share it.
+/// The byte sizes are estimates, see [Footprint] for the assumptions.
+/// The shallow size of every object is taken from the fields of its concrete class, see [Footprint#shallow(Object)],
+/// so the estimate follows the implementation of the model, like the views of a mapped model or the linked classes.
+/// Objects the model does not expose, like the maps of a model implementation, are not counted.
+/// For models that create objects on access, like [org.karina.model.model.impl.MappedModel],
+/// the estimate is the size of the objects created while walking the model, not of the backing buffer.
+///
+/// @param classes         the number of classes
+/// @param methods         the number of methods
+/// @param fields          the number of fields
+/// @param annotations     the number of annotations on classes, methods and fields, including nested annotations
+/// @param classBytes      the estimated size of the class objects
+/// @param memberBytes     the estimated size of the method and field objects
+/// @param stringBytes     the estimated size of all distinct string instances
+/// @param listBytes       the estimated size of all distinct lists, without their elements
+/// @param pathBytes       the estimated size of all distinct [ObjectPath] nodes
+/// @param typeBytes       the estimated size of types, generics and class pointers
+/// @param identifierBytes the estimated size of the [LoadedClassIdentifier] objects
+/// @param annotationBytes the estimated size of annotations and their values
+/// @param stringInstances the number of distinct string instances
+/// @param uniqueStrings   the number of distinct string contents
+/// @param duplicateStringBytes the estimated size of string instances with the same content as another instance
+/// @param packages        the statistics of every package, by package name
+public record ModelStats(
+        int classes,
+        int methods,
+        int fields,
+        int annotations,
+        long classBytes,
+        long memberBytes,
+        long stringBytes,
+        long listBytes,
+        long pathBytes,
+        long typeBytes,
+        long identifierBytes,
+        long annotationBytes,
+        int stringInstances,
+        int uniqueStrings,
+        long duplicateStringBytes,
+        @Unmodifiable Map<String, PackageStats> packages
+) {
+
+    /// Walks all classes of the model.
+    ///
+    /// @param model the model to measure
+    /// @return the statistics of the model
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static ModelStats of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        var collector = new Collector();
+        for (var classModel : model.classes()) {
+            collector.visitClass(classModel);
+        }
+        return collector.build();
+    }
+
+    /// @return the sum of all estimated sizes
+    @Contract(pure = true)
+    public long totalBytes() {
+        return this.classBytes + this.memberBytes + this.stringBytes + this.listBytes
+                + this.pathBytes + this.typeBytes + this.identifierBytes + this.annotationBytes;
+    }
+
+    /// @return the share of string instances that duplicate the content of another instance, between 0 and 1
+    @Contract(pure = true)
+    public double duplicateStringRatio() {
+        if (this.stringInstances == 0) {
+            return 0;
+        }
+        return 1 - (double) this.uniqueStrings / this.stringInstances;
+    }
+
+
+    /// The statistics of the classes of a single package.
+    /// Objects shared between packages are counted for the package that reached them first.
+    ///
+    /// @param name    the package name, e.g. `java/util`, `""` for the unnamed package
+    /// @param classes the number of classes
+    /// @param methods the number of methods
+    /// @param fields  the number of fields
+    /// @param bytes   the estimated retained size
+    public record PackageStats(String name, int classes, int methods, int fields, long bytes) {}
+
+
+    /// Accumulates the statistics, counting every object once by identity.
+    private static final class Collector {
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<String, Boolean> contents = new HashMap<>();
+        private final Map<String, PackageStats> packages = new TreeMap<>();
+
+        private int classes;
+        private int methods;
+        private int fields;
+        private int annotations;
+        private long classBytes;
+        private long memberBytes;
+        private long stringBytes;
+        private long listBytes;
+        private long pathBytes;
+        private long typeBytes;
+        private long identifierBytes;
+        private long annotationBytes;
+        private int stringInstances;
+        private long duplicateStringBytes;
+
+        private void visitClass(ClassModel classModel) {
+            var before = total();
+
+            this.classes++;
+            this.classBytes += Footprint.shallow(classModel);
+            string(classModel.binaryName());
+            string(classModel.compiledSource());
+            var innerClassInfo = classModel.innerClassInfo();
+            if (innerClassInfo != null && first(innerClassInfo)) {
+                this.classBytes += Footprint.shallow(innerClassInfo);
+                string(innerClassInfo.name());
+            }
+            path(classModel.path());
+            pointer(classModel.classPointer());
+            identifier(classModel.identifier());
+            generics(classModel.generics());
+            type(classModel.superClass());
+            list(classModel.interfaces());
+            for (var anInterface : classModel.interfaces()) {
+                type(anInterface);
+            }
+            pointer(classModel.outerClass());
+            var enclosingMethod = classModel.enclosingMethod();
+            if (enclosingMethod != null && first(enclosingMethod)) {
+                this.typeBytes += Footprint.shallow(enclosingMethod);
+                pointer(enclosingMethod.classPointer());
+            }
+            annotations(classModel.annotations());
+            pointers(classModel.nestedClasses());
+            pointer(classModel.nestHost());
+            pointers(classModel.nestMembers());
+            pointers(classModel.permittedSubclasses());
+
+            list(classModel.fields());
+            for (var field : classModel.fields()) {
+                visitField(field);
+            }
+            list(classModel.methods());
+            for (var method : classModel.methods()) {
+                visitMethod(method);
+            }
+
+            var packageName = PackageIndex.packageName(classModel.binaryName());
+            var bytes = total() - before;
+            var fields = classModel.fields().size();
+            var methods = classModel.methods().size();
+            this.packages.merge(
+                    packageName,
+                    new PackageStats(packageName, 1, methods, fields, bytes),
+                    (a, b) -> new PackageStats(
+                            packageName,
+                            a.classes() + b.classes(),
+                            a.methods() + b.methods(),
+                            a.fields() + b.fields(),
+                            a.bytes() + b.bytes()
+                    )
+            );
+        }
+
+        private void visitField(FieldModel field) {
+            this.fields++;
+            if (!first(field)) {
+                return;
+            }
+            this.memberBytes += Footprint.shallow(field);
+            string(field.name());
+            if (first(field.pointer())) {
+                this.typeBytes += Footprint.shallow(field.pointer());
+            }
+            type(field.type());
+            annotations(field.annotations());
+            var defaultValue = field.defaultValue();
+            if (defaultValue instanceof String string) {
+                string(string);
+            } else if (defaultValue != null && first(defaultValue)) {
+                this.memberBytes += Footprint.shallow(defaultValue);
+            }
+        }
+
+        private void visitMethod(MethodModel method) {
+            this.methods++;
+            if (!first(method)) {
+                return;
+            }
+            this.memberBytes += Footprint.shallow(method);
+            string(method.name());
+            if (first(method.pointer())) {
+                this.typeBytes += Footprint.shallow(method.pointer());
+            }
+            generics(method.generics());
+            list(method.parameterNames());
+            for (var parameterName : method.parameterNames()) {
+                string(parameterName);
+            }
+            list(method.parameterTypes());
+            for (var parameterType : method.parameterTypes()) {
+                type(parameterType);
+            }
+            type(method.returnType());
+            annotations(method.annotations());
+            list(method.exceptions());
+            for (var exception : method.exceptions()) {
+                type(exception);
+            }
+            var annotationDefault = method.annotationDefault();
+            if (annotationDefault != null) {
+                value(annotationDefault);
+            }
+        }
+
+        private void generics(List<? extends GenericModel> generics) {
+            list(generics);
+            for (var generic : generics) {
+                if (!first(generic)) {
+                    continue;
+                }
+                this.typeBytes += Footprint.shallow(generic);
+                string(generic.name());
+                type(generic.classBound());
+                list(generic.interfaceBounds());
+                for (var interfaceBound : generic.interfaceBounds()) {
+                    type(interfaceBound);
+                }
+            }
+        }
+
+        private void type(@Nullable Type type) {
+            if (type == null || !first(type)) {
+                return;
+            }
+            switch (type) {
+                case ReferenceType.ClassType classType -> {
+                    this.typeBytes += Footprint.shallow(classType);
+                    pointer(classType.pointer());
+                    list(classType.implementation());
+                    for (var argument : classType.implementation()) {
+                        if (first(argument)) {
+                            this.typeBytes += Footprint.shallow(argument);
+                            type(switch (argument) {
+                                case GenericArgument.Invariant(var inner) -> inner;
+                                case GenericArgument.Covariant(var inner) -> inner;
+                                case GenericArgument.Contravariant(var inner) -> inner;
+                            });
+                        }
+                    }
+                    type(classType.owner());
+                }
+                case ReferenceType.ArrayType arrayType -> {
+                    this.typeBytes += Footprint.shallow(arrayType);
+                    type(arrayType.component());
+                }
+                case ReferenceType.TypeVariableType typeVariable -> {
+                    this.typeBytes += Footprint.shallow(typeVariable);
+                    if (first(typeVariable.pointer())) {
+                        this.typeBytes += Footprint.shallow(typeVariable.pointer());
+                    }
+                }
+                // primitive and void types are shared singletons
+                default -> {}
+            }
+        }
+
+        private void pointers(List<ClassPointer> pointers) {
+            list(pointers);
+            for (var pointer : pointers) {
+                pointer(pointer);
+            }
+        }
+
+        private void pointer(@Nullable ClassPointer pointer) {
+            if (pointer == null || !first(pointer)) {
+                return;
+            }
+            this.typeBytes += Footprint.shallow(pointer);
+            if (pointer instanceof SimpleClassPointer simple) {
+                string(simple.name());
+            }
+        }
+
+        private void path(ObjectPath path) {
+            // the nodes of a path are shared with all paths starting with the same elements
+            for (var node = path; node != null && node.size() > 0 && first(node); node = node.everythingButLast()) {
+                this.pathBytes += Footprint.shallow(node);
+                string(node.last());
+            }
+        }
+
+        private void identifier(LoadedClassIdentifier identifier) {
+            if (!first(identifier)) {
+                return;
+            }
+            if (identifier instanceof Record record) {
+                var components = record.getClass().getRecordComponents();
+                this.identifierBytes += Footprint.shallow(record);
+                for (var component : components) {
+                    try {
+                        if (component.getAccessor().invoke(record) instanceof String string) {
+                            string(string);
+                        }
+                    } catch (ReflectiveOperationException | RuntimeException e) {
+                        // not accessible, only the identifier object itself is counted
+                    }
+                }
+            } else {
+                this.identifierBytes += Footprint.shallow(identifier) + Footprint.string(identifier.identifier());
+            }
+        }
+
+        private void annotations(List<Annotation> annotations) {
+            list(annotations);
+            for (var annotation : annotations) {
+                annotation(annotation);
+            }
+        }
+
+        private void annotation(Annotation annotation) {
+            this.annotations++;
+            if (!first(annotation)) {
+                return;
+            }
+            this.annotationBytes += Footprint.shallow(annotation);
+            pointer(annotation.classPointer());
+            list(annotation.values());
+            for (var entry : annotation.values()) {
+                if (first(entry)) {
+                    this.annotationBytes += Footprint.shallow(entry);
+                    string(entry.name());
+                    value(entry.value());
+                }
+            }
+        }
+
+        private void value(Annotation.Value value) {
+            if (!first(value)) {
+                return;
+            }
+            this.annotationBytes += Footprint.shallow(value);
+            switch (value) {
+                case Annotation.Value.StringValue(var string) -> string(string);
+                case Annotation.Value.EnumValue(var enumType, var enumName) -> {
+                    pointer(enumType);
+                    string(enumName);
+                }
+                case Annotation.Value.ClassValue(var descriptor) -> string(descriptor);
+                case Annotation.Value.AnnotationValue(var annotation) -> annotation(annotation);
+                case Annotation.Value.ArrayValue(var values) -> {
+                    list(values);
+                    for (var element : values) {
+                        value(element);
+                    }
+                }
+                default -> {}
+            }
+        }
+
+        private void list(List<?> list) {
+            if (first(list)) {
+                this.listBytes += Footprint.list(list);
+            }
+        }
+
+        private void string(@Nullable String string) {
+            if (string == null || !first(string)) {
+                return;
+            }
+            var size = Footprint.string(string);
+            this.stringInstances++;
+            this.stringBytes += size;
+            if (this.contents.putIfAbsent(string, Boolean.TRUE) != null) {
+                this.duplicateStringBytes += size;
+            }
+        }
+
+        /// @return `true` if the object was not visited before
+        private boolean first(Object object) {
+            return this.visited.add(object);
+        }
+
+        private long total() {
+            return this.classBytes + this.memberBytes + this.stringBytes + this.listBytes
+                    + this.pathBytes + this.typeBytes + this.identifierBytes + this.annotationBytes;
+        }
+
+        private ModelStats build() {
+            return new ModelStats(
+                    this.classes,
+                    this.methods,
+                    this.fields,
+                    this.annotations,
+                    this.classBytes,
+                    this.memberBytes,
+                    this.stringBytes,
+                    this.listBytes,
+                    this.pathBytes,
+                    this.typeBytes,
+                    this.identifierBytes,
+                    this.annotationBytes,
+                    this.stringInstances,
+                    this.contents.size(),
+                    this.duplicateStringBytes,
+                    Collections.unmodifiableMap(this.packages)
+            );
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Contract;
+import org.karina.model.exceptions.*;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.FieldPointer;
+import org.karina.model.model.pointer.MethodPointer;
+
+import java.util.*;
+import java.util.function.IntSupplier;
+
+/// Stages many class, method and field edits on a [Model] and applies them at once.
+///
+/// Staging an edit only records it. [#commit()] validates all edits in the order they were staged,
+/// rebuilds only the classes with member edits and creates the resulting model in a single pass.
+/// The base model is not modified.
+///
+/// Member pointers are resolved against the base model. The edited member of a class is found by
+/// name and descriptor, so a member replaced earlier in the same transaction is edited again,
+/// if its replacement has the same descriptor.
+/// Added and replacing members must belong to the class they are added to.
+/// A class with member edits can not be added, replaced or removed in the same transaction,
+/// stage the complete class with [#replaceClass(ClassModel)] instead.
+///
+/// ```java
+/// var newModel = model.transaction()
+///     .addMethod(classPointer, getter)
+///     .replaceField(fieldPointer, newField)
+///     .commit();
+/// ```
+///
+/// @see Model#transaction()
+public final class ModelTransaction {
+    private final Model base;
+    private final List<Edit> edits = new ArrayList<>();
+
+    ModelTransaction(Model base) {
+        this.base = Objects.requireNonNull(base, "Model cannot be null");
+    }
+
+    /// Stages a new class.
+    ///
+    /// @param classModel the class to add. Its name must not exist in the model at commit
+    /// @return this transaction
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ModelTransaction addClass(ClassModel classModel) {
+        Objects.requireNonNull(classModel, "ClassModel cannot be null");
+        this.edits.add(new Edit.AddClass(classModel));
+        return this;
+    }
+
+    /// Stages the replacement of the class with the same binary name.
+    ///
+    /// @param classModel the new class
+    /// @return this transaction
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ModelTransaction replaceClass(ClassModel classModel) {
+        Objects.requireNonNull(classModel, "ClassModel cannot be null");
+        this.edits.add(new Edit.ReplaceClass(classModel));
+        return this;
+    }
+
+    /// Stages the removal of a class of the base model.
+    ///
+    /// @param pointer the class to remove
+    /// @return this transaction
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ModelTransaction removeClass(ClassPointer pointer) {
+        Objects.requireNonNull(pointer, "ClassPointer cannot be null");
+        this.edits.add(new Edit.RemoveClass(pointer));
+        return this;
+    }
+
+    /// Stages a new method of a class of the base model.
+    ///
+    /// @param classPointer the class to add the method to
+    /// @param method       the method to add
+    /// @return this transaction
+    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> this", mutates = "this")
+    public ModelTransaction addMethod(ClassPointer classPointer, MethodModel method) {
+        Objects.requireNonNull(classPointer, "ClassPointer cannot be null");
+        Objects.requireNonNull(method, "MethodModel cannot be null");
+        this.edits.add(new Edit.AddMethod(classPointer, method));
+        return this;
+    }
+
+    /// Stages the replacement of a method of the base model.
+    ///
+    /// @param pointer the method to replace
+    /// @param method  the new method
+    /// @return this transaction
+    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> this", mutates = "this")
+    public ModelTransaction replaceMethod(MethodPointer pointer, MethodModel method) {
+        Objects.requireNonNull(pointer, "MethodPointer cannot be null");
+        Objects.requireNonNull(method, "MethodModel cannot be null");
+        this.edits.add(new Edit.ReplaceMethod(pointer, method));
+        return this;
+    }
+
+    /// Stages the removal of a method of the base model.
+    ///
+    /// @param pointer the method to remove
+    /// @return this transaction
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ModelTransaction removeMethod(MethodPointer pointer) {
+        Objects.requireNonNull(pointer, "MethodPointer cannot be null");
+        this.edits.add(new Edit.RemoveMethod(pointer));
+        return this;
+    }
+
+    /// Stages a new field of a class of the base model.
+    ///
+    /// @param classPointer the class to add the field to
+    /// @param field        the field to add
+    /// @return this transaction
+    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> this", mutates = "this")
+    public ModelTransaction addField(ClassPointer classPointer, FieldModel field) {
+        Objects.requireNonNull(classPointer, "ClassPointer cannot be null");
+        Objects.requireNonNull(field, "FieldModel cannot be null");
+        this.edits.add(new Edit.AddField(classPointer, field));
+        return this;
+    }
+
+    /// Stages the replacement of a field of the base model.
+    ///
+    /// @param pointer the field to replace
+    /// @param field   the new field
+    /// @return this transaction
+    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> this", mutates = "this")
+    public ModelTransaction replaceField(FieldPointer pointer, FieldModel field) {
+        Objects.requireNonNull(pointer, "FieldPointer cannot be null");
+        Objects.requireNonNull(field, "FieldModel cannot be null");
+        this.edits.add(new Edit.ReplaceField(pointer, field));
+        return this;
+    }
+
+    /// Stages the removal of a field of the base model.
+    ///
+    /// @param pointer the field to remove
+    /// @return this transaction
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ModelTransaction removeField(FieldPointer pointer) {
+        Objects.requireNonNull(pointer, "FieldPointer cannot be null");
+        this.edits.add(new Edit.RemoveField(pointer));
+        return this;
+    }
+
+    /// @return the number of staged edits
+    @Contract(pure = true)
+    public int size() {
+        return this.edits.size();
+    }
+
+    /// Validates and applies all staged edits.
+    /// The transaction is not modified and can be committed again.
+    ///
+    /// @return a new model with all edits applied
+    /// @throws DuplicateClassModel when a added class already exists
+    /// @throws InvalidClassPointerException when a replaced, removed or edited class does not exist
+    /// @throws InvalidMethodPointerException when a replaced or removed method does not exist or was already removed
+    /// @throws InvalidFieldPointerException when a replaced or removed field does not exist or was already removed
+    /// @throws ClassFormatException.DuplicateMethodException when a edited class contains a method twice
+    /// @throws ClassFormatException.DuplicateFieldException when a edited class contains a field twice
+    /// @throws IllegalStateException when a class with member edits is also added, replaced or removed,
+    ///                               or an added or replacing member belongs to another class
+    @Contract(value = "-> new", pure = true)
+    public Model commit() {
+        var classes = new HashMap<String, ClassModel>();
+        for (var classModel : this.base.classes()) {
+            classes.put(classModel.binaryName(), classModel);
+        }
+
+        var classEdits = new HashSet<String>();
+        var memberEdits = new LinkedHashMap<String, MemberEdits>();
+
+        for (var edit : this.edits) {
+            switch (edit) {
+                case Edit.AddClass(var classModel) -> {
+                    var existing = classes.putIfAbsent(classModel.binaryName(), classModel);
+                    if (existing != null) {
+                        throw new DuplicateClassModel(classModel, existing);
+                    }
+                    classEdits.add(classModel.binaryName());
+                }
+                case Edit.ReplaceClass(var classModel) -> {
+                    if (classes.replace(classModel.binaryName(), classModel) == null) {
+                        throw new InvalidClassPointerException(classModel.classPointer());
+                    }
+                    classEdits.add(classModel.binaryName());
+                }
+                case Edit.RemoveClass(var pointer) -> {
+                    var name = this.base.getClass(pointer).binaryName();
+                    if (classes.remove(name) == null) {
+                        throw new InvalidClassPointerException(pointer);
+                    }
+                    classEdits.add(name);
+                }
+                case Edit.AddMethod(var classPointer, var method) -> {
+                    var edits = memberEdits(memberEdits, classPointer);
+                    checkOwner(edits, method.classPointer(), method.name());
+                    edits.methods.add(method);
+                }
+                case Edit.ReplaceMethod(var pointer, var method) -> {
+                    var target = this.base.getMethod(pointer);
+                    var edits = memberEdits(memberEdits, target.classPointer());
+                    checkOwner(edits, method.classPointer(), method.name());
+                    edits.methods.set(indexOfMethod(edits.methods, target, pointer), method);
+                }
+                case Edit.RemoveMethod(var pointer) -> {
+                    var target = this.base.getMethod(pointer);
+                    var edits = memberEdits(memberEdits, target.classPointer());
+                    edits.methods.remove(indexOfMethod(edits.methods, target, pointer));
+                }
+                case Edit.AddField(var classPointer, var field) -> {
+                    var edits = memberEdits(memberEdits, classPointer);
+                    checkOwner(edits, field.classPointer(), field.name());
+                    edits.fields.add(field);
+                }
+                case Edit.ReplaceField(var pointer, var field) -> {
+                    var target = this.base.getField(pointer);
+                    var edits = memberEdits(memberEdits, target.classPointer());
+                    checkOwner(edits, field.classPointer(), field.name());
+                    edits.fields.set(indexOfField(edits.fields, target, pointer), field);
+                }
+                case Edit.RemoveField(var pointer) -> {
+                    var target = this.base.getField(pointer);
+                    var edits = memberEdits(memberEdits, target.classPointer());
+                    edits.fields.remove(indexOfField(edits.fields, target, pointer));
+                }
+            }
+        }
+
+        var editedClasses = new ArrayList<ClassModel>(memberEdits.size());
+        for (var entry : memberEdits.entrySet()) {
+            if (classEdits.contains(entry.getKey())) {
+                throw new IllegalStateException(
+                        "Class " + entry.getKey() + " has member edits and is also added, replaced or removed"
+                );
+            }
+            var edits = entry.getValue();
+            var editedClass = ClassModel.builder(edits.classModel)
+                                        .methods(edits.methods)
+                                        .fields(edits.fields)
+                                        .build();
+            classes.put(entry.getKey(), editedClass);
+            editedClasses.add(editedClass);
+        }
+
+        var model = new SimpleModel(classes);
+
+        // only classes with member edits can contain new duplicates
+        var descriptors = model.descriptors();
+        for (var editedClass : editedClasses) {
+            var fieldDescriptors = new HashMap<String, Set<Integer>>();
+            for (var field : editedClass.fields()) {
+                var ids = fieldDescriptors.computeIfAbsent(field.name(), ignored -> new HashSet<>());
+                if (!ids.add(descriptors.id(field))) {
+                    throw new ClassFormatException.DuplicateFieldException(editedClass, field);
+                }
+            }
+            var methodDescriptors = new HashMap<String, Set<Integer>>();
+            for (var method : editedClass.methods()) {
+                var ids = methodDescriptors.computeIfAbsent(method.name(), ignored -> new HashSet<>());
+                if (!ids.add(descriptors.id(method))) {
+                    throw new ClassFormatException.DuplicateMethodException(editedClass, method);
+                }
+            }
+        }
+
+        return model;
+    }
+
+
+    private MemberEdits memberEdits(Map<String, MemberEdits> memberEdits, ClassPointer classPointer) {
+        var classModel = this.base.getClass(classPointer);
+        return memberEdits.computeIfAbsent(classModel.binaryName(), ignored -> new MemberEdits(classModel));
+    }
+
+    private static void checkOwner(MemberEdits edits, ClassPointer owner, String memberName) {
+        if (!edits.classModel.classPointer().equals(owner)) {
+            throw new IllegalStateException(
+                    "Member " + memberName + " belongs to " + owner + ", not to class " + edits.classModel.binaryName()
+            );
+        }
+    }
+
+    /// Members are compared by name and descriptor id, views of a model are not identical between accesses.
+    ///
+    /// @return the index of the method with the name and descriptor of `target` in the list
+    private int indexOfMethod(List<MethodModel> methods, MethodModel target, MethodPointer pointer) {
+        var descriptors = this.base.descriptors();
+        var descriptor = descriptors.id(target);
+        for (var i = 0; i < methods.size(); i++) {
+            var method = methods.get(i);
+            if (method.name().equals(target.name()) && sameDescriptor(() -> descriptors.id(method), descriptor)) {
+                return i;
+            }
+        }
+        throw new InvalidMethodPointerException(pointer);
+    }
+
+    /// @return the index of the field with the name and descriptor of `target` in the list
+    private int indexOfField(List<FieldModel> fields, FieldModel target, FieldPointer pointer) {
+        var descriptors = this.base.descriptors();
+        var descriptor = descriptors.id(target);
+        for (var i = 0; i < fields.size(); i++) {
+            var field = fields.get(i);
+            if (field.name().equals(target.name()) && sameDescriptor(() -> descriptors.id(field), descriptor)) {
+                return i;
+            }
+        }
+        throw new InvalidFieldPointerException(pointer);
+    }
+
+    /// A member added in this transaction may reference added classes, that the base model cannot resolve.
+    /// Such a member cannot have the descriptor of a member of the base model.
+    private static boolean sameDescriptor(IntSupplier id, int descriptor) {
+        try {
+            return id.getAsInt() == descriptor;
+        } catch (InvalidClassPointerException ignored) {
+            return false;
+        }
+    }
+
+
+    /// The methods and fields of a class of the base model, with all member edits applied so far.
+    private static final class MemberEdits {
+        private final ClassModel classModel;
+        private final List<MethodModel> methods;
+        private final List<FieldModel> fields;
+
+        private MemberEdits(ClassModel classModel) {
+            this.classModel = classModel;
+            this.methods = new ArrayList<>(classModel.methods());
+            this.fields = new ArrayList<>(classModel.fields());
+        }
+    }
+
+    private sealed interface Edit {
+        record AddClass(ClassModel classModel) implements Edit {}
+        record ReplaceClass(ClassModel classModel) implements Edit {}
+        record RemoveClass(ClassPointer pointer) implements Edit {}
+        record AddMethod(ClassPointer classPointer, MethodModel method) implements Edit {}
+        record ReplaceMethod(MethodPointer pointer, MethodModel method) implements Edit {}
+        record RemoveMethod(MethodPointer pointer) implements Edit {}
+        record AddField(ClassPointer classPointer, FieldModel field) implements Edit {}
+        record ReplaceField(FieldPointer pointer, FieldModel field) implements Edit {}
+        record RemoveField(FieldPointer pointer) implements Edit {}
+    }
+}
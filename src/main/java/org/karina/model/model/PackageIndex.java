@@ -0,0 +1,167 @@
+package org.karina.model.model;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/// Assigns every class of a [Model] the id of its package.
+///
+/// The package of a class is the part of its binary name before the last `/`.
+/// Classes without a `/` in their name belong to the unnamed package (`""`).
+///
+/// Package ids are dense, starting at `0`, and only comparable within the same index.
+/// Same-package tests for indexed classes are a single lookup per class and do not allocate.
+///
+/// @see Model#packages()
+public final class PackageIndex {
+    /// Returned by [#packageOf(String)] for classes that are not part of the index.
+    public static final int UNKNOWN = -1;
+
+    /// Binary class name to package id.
+    private final Map<String, Integer> classPackages;
+
+    /// Package id to package name.
+    private final List<String> packageNames;
+
+    /// Package id to the binary names of its classes.
+    private final List<List<String>> packageClasses;
+
+    /// Package name to package id.
+    private final Map<String, Integer> packageIds;
+
+    private PackageIndex(Collection<String> binaryNames) {
+        this.classPackages = new HashMap<>(binaryNames.size());
+        this.packageNames = new ArrayList<>();
+        this.packageIds = new HashMap<>();
+        var packageClasses = new ArrayList<List<String>>();
+
+        for (var binaryName : binaryNames) {
+            var packageName = packageName(binaryName);
+            var id = this.packageIds.get(packageName);
+            if (id == null) {
+                id = this.packageNames.size();
+                this.packageNames.add(packageName);
+                this.packageIds.put(packageName, id);
+                packageClasses.add(new ArrayList<>());
+            }
+            this.classPackages.put(binaryName, id);
+            packageClasses.get(id).add(binaryName);
+        }
+
+        this.packageClasses = packageClasses.stream().map(List::copyOf).toList();
+    }
+
+    /// Creates a index for the given binary class names.
+    ///
+    /// @param binaryNames the binary names of all classes of a model, cannot be `null` or contain `null` elements
+    /// @return a new index
+    /// @throws NullPointerException if `binaryNames` is `null` or contains `null` elements
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static PackageIndex of(Collection<String> binaryNames) {
+        Objects.requireNonNull(binaryNames, "Binary names cannot be null");
+        return new PackageIndex(binaryNames);
+    }
+
+    /// Creates a index for all classes of the given model.
+    ///
+    /// @param model the model to index
+    /// @return a new index
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static PackageIndex of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        var names = model.classes().stream().map(ClassModel::binaryName).toList();
+        return new PackageIndex(names);
+    }
+
+    /// @return the package id of the class, or [#UNKNOWN] if the class is not part of this index
+    @Contract(pure = true)
+    public int packageOf(String binaryName) {
+        var id = this.classPackages.get(binaryName);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /// @return the package id of the class, or [#UNKNOWN] if the class is not part of this index
+    @Contract(pure = true)
+    public int packageOf(ClassModel classModel) {
+        return packageOf(classModel.binaryName());
+    }
+
+    /// Tests if two classes are in the same package.
+    /// Falls back to comparing the names directly when a class is not part of this index.
+    ///
+    /// @return `true` if both classes are in the same package
+    @Contract(pure = true)
+    public boolean samePackage(ClassModel a, ClassModel b) {
+        return samePackage(a.binaryName(), b.binaryName());
+    }
+
+    /// Tests if two classes are in the same package.
+    /// Falls back to comparing the names directly when a class is not part of this index.
+    ///
+    /// @return `true` if both classes are in the same package
+    @Contract(pure = true)
+    public boolean samePackage(String a, String b) {
+        var packageA = packageOf(a);
+        var packageB = packageOf(b);
+        if (packageA != UNKNOWN && packageB != UNKNOWN) {
+            return packageA == packageB;
+        }
+
+        var lengthA = Math.max(a.lastIndexOf('/'), 0);
+        var lengthB = Math.max(b.lastIndexOf('/'), 0);
+        return lengthA == lengthB && a.regionMatches(0, b, 0, lengthA);
+    }
+
+    /// @return the package id for a package name, e.g. `java/lang`, or [#UNKNOWN] if no class is in this package
+    @Contract(pure = true)
+    public int packageId(String packageName) {
+        var id = this.packageIds.get(packageName);
+        return id == null ? UNKNOWN : id;
+    }
+
+    /// @return the name of the package, e.g. `java/lang`
+    /// @throws IndexOutOfBoundsException if the id is not part of this index
+    @Contract(pure = true)
+    public String packageName(int packageId) {
+        return this.packageNames.get(packageId);
+    }
+
+    /// @return a non-mutable list of the binary names of all classes in the package
+    /// @throws IndexOutOfBoundsException if the id is not part of this index
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<String> classes(int packageId) {
+        return this.packageClasses.get(packageId);
+    }
+
+    /// @return a non-mutable list of the binary names of all classes in the package, empty if the package is unknown
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<String> classes(String packageName) {
+        var id = packageId(packageName);
+        return id == UNKNOWN ? List.of() : classes(id);
+    }
+
+    /// @return the number of packages
+    @Contract(pure = true)
+    public int packageCount() {
+        return this.packageNames.size();
+    }
+
+    /// @return a non-mutable list of all package names, indexed by package id
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<String> packages() {
+        return Collections.unmodifiableList(this.packageNames);
+    }
+
+    /// @return the package name of a binary class name
+    @Contract(pure = true)
+    public static String packageName(String binaryName) {
+        var index = binaryName.lastIndexOf('/');
+        return index < 0 ? "" : binaryName.substring(0, index);
+    }
+
+}
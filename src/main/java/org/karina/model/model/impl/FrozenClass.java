@@ -0,0 +1,57 @@
+package org.karina.model.model.impl;
+
+import org.karina.model.model.Annotation;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.FieldModel;
+import org.karina.model.model.GenericModel;
+import org.karina.model.model.MethodModel;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.util.LoadedClassIdentifier;
+import org.karina.model.util.ObjectPath;
+
+import java.util.List;
+
+/// The compact, read-only class representation of a [FrozenModel].
+///
+/// All lists are non-mutable and exactly sized, empty lists are the shared [List#of()] instance.
+/// Like every other class model, a frozen class is equal only to itself,
+/// the components are not compared.
+record FrozenClass(
+        int version,
+        String binaryName,
+        ObjectPath path,
+        ClassPointer classPointer,
+        int flags,
+        InnerClassInfo innerClassInfo,
+        List<? extends GenericModel> generics,
+        ReferenceType.ClassType superClass,
+        List<? extends ReferenceType.ClassType> interfaces,
+        String compiledSource,
+        LoadedClassIdentifier identifier,
+        ClassPointer outerClass,
+        ClassModel.LocalAndAnonymousInfo enclosingMethod,
+        List<Annotation> annotations,
+        List<ClassPointer> nestedClasses,
+        ClassPointer nestHost,
+        List<ClassPointer> nestMembers,
+        List<ClassPointer> permittedSubclasses,
+        List<? extends FieldModel> fields,
+        List<? extends MethodModel> methods
+) implements ClassModel {
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenClass{" + "binaryName='" + this.binaryName + '\'' + '}';
+    }
+}
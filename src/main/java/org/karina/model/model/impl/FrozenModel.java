@@ -0,0 +1,214 @@
+package org.karina.model.model.impl;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.typing.GenericArgument;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.util.Footprint;
+import org.karina.model.util.ObjectPath;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/// A compact, read-only copy of a [Model], meant for models that stay in memory for a long time.
+///
+/// Freezing trades build time for resident memory:
+/// - every list is copied into an exactly sized non-mutable list, empty lists are replaced by the shared [List#of()]
+/// - class pointers and types are deduplicated across the whole model
+/// - binary names and source file names are deduplicated, paths are always shared, see [ObjectPath]
+///
+/// Pointers of the original model stay valid in the frozen model.
+/// Methods, fields, generics and annotations are shared with the original model.
+///
+/// @see Model#freeze()
+public final class FrozenModel extends SimpleModel {
+    private final long bytesSaved;
+
+    /// @param classes the frozen classes, owned by the model
+    private FrozenModel(Map<String, ClassModel> classes, long bytesSaved) {
+        super(classes, false);
+        this.bytesSaved = bytesSaved;
+    }
+
+    /// Packs all classes of the model into their compact form.
+    ///
+    /// @param model the model to freeze
+    /// @return the frozen model, or `model` itself when it is already frozen
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail", pure = true)
+    public static FrozenModel freeze(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        if (model instanceof FrozenModel frozenModel) {
+            return frozenModel;
+        }
+
+        var interner = new Interner();
+        var classes = new HashMap<String, ClassModel>();
+        for (var classModel : model.classes()) {
+            var frozenClass = interner.freeze(classModel);
+            classes.put(frozenClass.binaryName(), frozenClass);
+        }
+
+        return new FrozenModel(classes, interner.bytesSaved);
+    }
+
+    /// The estimated number of bytes that can be reclaimed once the original model is no longer referenced.
+    /// Only counts structures replaced by freezing, see [Footprint] for the assumptions of the estimate.
+    ///
+    /// @return the estimated number of bytes saved by freezing
+    @Contract(pure = true)
+    public long bytesSaved() {
+        return this.bytesSaved;
+    }
+
+    @Override
+    public FrozenModel freeze() {
+        return this;
+    }
+
+
+    /// Deduplicates the parts of classes and keeps track of the replaced objects.
+    private static final class Interner {
+        private final Map<String, String> strings = new HashMap<>();
+        private final Map<ClassPointer, ClassPointer> pointers = new HashMap<>();
+        private final Map<ReferenceType, ReferenceType> types = new HashMap<>();
+
+        /// Replaced objects, so that a instance referenced from multiple places is only counted once.
+        private final Set<Object> released = Collections.newSetFromMap(new IdentityHashMap<>());
+        private long bytesSaved;
+
+        FrozenClass freeze(ClassModel classModel) {
+            return new FrozenClass(
+                    classModel.version(),
+                    string(classModel.binaryName()),
+                    classModel.path(),
+                    pointer(classModel.classPointer()),
+                    classModel.flags(),
+                    classModel.innerClassInfo(),
+                    list(classModel.generics(), UnaryOperator.identity()),
+                    classType(classModel.superClass()),
+                    list(classModel.interfaces(), this::classType),
+                    string(classModel.compiledSource()),
+                    classModel.identifier(),
+                    pointer(classModel.outerClass()),
+                    classModel.enclosingMethod(),
+                    list(classModel.annotations(), UnaryOperator.identity()),
+                    list(classModel.nestedClasses(), this::pointer),
+                    pointer(classModel.nestHost()),
+                    list(classModel.nestMembers(), this::pointer),
+                    list(classModel.permittedSubclasses(), this::pointer),
+                    list(classModel.fields(), UnaryOperator.identity()),
+                    list(classModel.methods(), UnaryOperator.identity())
+            );
+        }
+
+        private void release(Object replaced, long size) {
+            if (size > 0 && this.released.add(replaced)) {
+                this.bytesSaved += size;
+            }
+        }
+
+        private @Nullable String string(@Nullable String string) {
+            if (string == null) {
+                return null;
+            }
+            var existing = this.strings.putIfAbsent(string, string);
+            if (existing == null) {
+                return string;
+            }
+            if (existing != string) {
+                release(string, Footprint.string(string));
+            }
+            return existing;
+        }
+
+        private @Nullable ClassPointer pointer(@Nullable ClassPointer pointer) {
+            if (pointer == null) {
+                return null;
+            }
+            var existing = this.pointers.get(pointer);
+            if (existing != null) {
+                if (existing != pointer) {
+                    release(pointer, Footprint.shallow(pointer));
+                    if (pointer instanceof SimpleClassPointer simplePointer) {
+                        string(simplePointer.name());
+                    }
+                }
+                return existing;
+            }
+
+            var canonical = pointer;
+            if (pointer instanceof SimpleClassPointer simplePointer) {
+                var name = string(simplePointer.name());
+                if (name != simplePointer.name()) {
+                    canonical = new SimpleClassPointer(name);
+                }
+            }
+            this.pointers.put(canonical, canonical);
+            return canonical;
+        }
+
+        private @Nullable ReferenceType.ClassType classType(@Nullable ReferenceType.ClassType classType) {
+            if (classType == null) {
+                return null;
+            }
+            return (ReferenceType.ClassType) type(classType);
+        }
+
+        private ReferenceType type(ReferenceType type) {
+            var existing = this.types.get(type);
+            if (existing != null) {
+                if (existing != type) {
+                    release(type, Footprint.shallow(type));
+                }
+                return existing;
+            }
+
+            var canonical = switch (type) {
+                case ReferenceType.ClassType classType -> new ReferenceType.ClassType(
+                        pointer(classType.pointer()),
+                        list(classType.implementation(), this::argument),
+                        classType(classType.owner())
+                );
+                case ReferenceType.ArrayType arrayType when arrayType.component() instanceof ReferenceType component ->
+                        new ReferenceType.ArrayType(type(component));
+                default -> type;
+            };
+            this.types.put(canonical, canonical);
+            return canonical;
+        }
+
+        private GenericArgument argument(GenericArgument argument) {
+            return switch (argument) {
+                case GenericArgument.Covariant(var type) -> new GenericArgument.Covariant(type(type));
+                case GenericArgument.Contravariant(var type) -> new GenericArgument.Contravariant(type(type));
+                case GenericArgument.Invariant(var type) -> new GenericArgument.Invariant(type(type));
+            };
+        }
+
+        private <T> List<T> list(List<? extends T> list, UnaryOperator<T> canonical) {
+            if (list.isEmpty()) {
+                release(list, Footprint.list(list));
+                return List.of();
+            }
+
+            var elements = new ArrayList<T>(list.size());
+            var changed = false;
+            for (var element : list) {
+                var canonicalElement = canonical.apply(element);
+                changed |= canonicalElement != element;
+                elements.add(canonicalElement);
+            }
+
+            // List.copyOf returns non-mutable lists as they are
+            List<T> result = changed ? List.copyOf(elements) : List.copyOf(list);
+            if (result != list) {
+                release(list, Footprint.list(list) - Footprint.list(result));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.karina.model.model.impl;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.exceptions.InvalidClassPointerException;
+import org.karina.model.exceptions.InvalidFieldPointerException;
+import org.karina.model.exceptions.InvalidGenericPointerException;
+import org.karina.model.exceptions.InvalidMethodPointerException;
+import org.karina.model.model.*;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.FieldPointer;
+import org.karina.model.model.pointer.GenericPointer;
+import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.util.ClassNameFilter;
+import org.karina.model.util.Lazy;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// A read-only view over an ordered chain of models, like a classpath of the JDK, libraries and generated code.
+///
+/// A binary name is resolved in the first layer that contains it, classes of later layers with the same name
+/// are shadowed. The layers are not copied, and the layer of every found name is cached,
+/// so repeated lookups of the same name do not walk the chain again.
+/// Every layer gets a [ClassNameFilter] over its class names, built on first use,
+/// so a missing name skips the lookups in the layers that cannot contain it.
+///
+/// The layers must use the pointers of [SimpleModel] and must not change after the view was created.
+///
+/// ```java
+/// var environment = LayeredModel.of(jdk, libraries, generated);
+/// var linker = new ModelLinker(environment);
+/// ```
+///
+/// The view is thread-safe, if the layers are.
+public final class LayeredModel implements Model {
+    /// Result of a name that is not part of any layer.
+    private static final int MISSING = -1;
+
+    private final List<Model> layers;
+
+    /// the name filter of every layer, in the order of the layers
+    private final List<Lazy<ClassNameFilter>> filters;
+
+    /// binary name to index of the first layer containing the class, misses are not cached
+    private final Map<String, Integer> resolved = new ConcurrentHashMap<>();
+
+    private final Lazy<List<ClassModel>> classes = Lazy.of(this::collectClasses);
+    private final Lazy<DescriptorTable> descriptors = Lazy.of(() -> new DescriptorTable(this));
+    private final Lazy<HierarchyIndex> hierarchy = Lazy.of(() -> HierarchyIndex.of(this));
+    private final Lazy<MemberIndex> members = Lazy.of(() -> MemberIndex.of(this));
+    private final Lazy<PackageIndex> packages = Lazy.of(() -> PackageIndex.of(this));
+
+    private LayeredModel(List<Model> layers) {
+        this.layers = layers;
+        var filters = new ArrayList<Lazy<ClassNameFilter>>(layers.size());
+        for (var layer : layers) {
+            // the filter is built from the package index, so the classes of a lazy layer are not linked
+            filters.add(Lazy.of(() -> ClassNameFilter.of(layer)));
+        }
+        this.filters = List.copyOf(filters);
+    }
+
+    /// @param layers the layers, in order of priority
+    /// @return a view over the layers
+    /// @throws NullPointerException if `layers` is `null` or contains `null` elements
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static LayeredModel of(Model... layers) {
+        Objects.requireNonNull(layers, "Layers cannot be null");
+        return of(Arrays.asList(layers));
+    }
+
+    /// @param layers the layers, in order of priority
+    /// @return a view over the layers
+    /// @throws NullPointerException if `layers` is `null` or contains `null` elements
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static LayeredModel of(List<? extends Model> layers) {
+        Objects.requireNonNull(layers, "Layers cannot be null");
+        for (var layer : layers) {
+            Objects.requireNonNull(layer, "Layer cannot be null");
+        }
+        return new LayeredModel(List.copyOf(layers));
+    }
+
+    /// @return the non-mutable list of layers, in order of priority
+    @Unmodifiable
+    @Contract(pure = true)
+    public List<Model> layers() {
+        return this.layers;
+    }
+
+    /// @return the first layer containing the class, or `null` if no layer contains it
+    @Contract(pure = true)
+    public @Nullable Model layerOf(String name) {
+        var index = layerIndex(name);
+        return index == MISSING ? null : this.layers.get(index);
+    }
+
+    /// Tests the name filters of all layers, without looking up the class.
+    ///
+    /// @return `false` if no layer contains the class,
+    ///         `true` if a layer might contain it
+    @Contract(pure = true)
+    public boolean mightContain(String name) {
+        for (var filter : this.filters) {
+            if (filter.get().mightContain(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    @Override
+    public @Nullable ClassPointer getClassPointer(String name) {
+        if (layerIndex(name) == MISSING) {
+            return null;
+        }
+        return new SimpleClassPointer(name);
+    }
+
+    @Override
+    public ClassModel getClass(ClassPointer pointer) throws InvalidClassPointerException {
+        return owner(pointer).getClass(pointer);
+    }
+
+    @Override
+    public @Nullable ClassPointer getInnerClassPointer(ClassPointer outer, String innerName)
+            throws InvalidClassPointerException {
+        return owner(outer).getInnerClassPointer(outer, innerName);
+    }
+
+    @Override
+    public MethodModel getMethod(MethodPointer pointer) throws InvalidMethodPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleMethodPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleMethodPointer");
+        };
+        return owner(simplePtr.classPointer()).getMethod(pointer);
+    }
+
+    @Override
+    public GenericModel getGenericModel(GenericPointer pointer) throws InvalidGenericPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleGenericPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleGenericPointer");
+        };
+        var classPointer = switch (simplePtr) {
+            case SimpleGenericPointer.ClassGenericPointer(var ptr, var ignored) -> ptr;
+            case SimpleGenericPointer.MethodGenericPointer(var ptr, var ignored) -> {
+                if (!(ptr instanceof SimpleMethodPointer methodPtr)) {
+                    throw new IllegalArgumentException("Pointer must be an instance of SimpleMethodPointer");
+                }
+                yield methodPtr.classPointer();
+            }
+        };
+        return owner(classPointer).getGenericModel(pointer);
+    }
+
+    @Override
+    public FieldModel getField(FieldPointer pointer) throws InvalidFieldPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleFieldPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleFieldPointer");
+        };
+        return owner(simplePtr.classPointer()).getField(pointer);
+    }
+
+    /// @return the classes of all layers, without shadowed classes
+    @Override
+    public Collection<? extends ClassModel> classes() {
+        return this.classes.get();
+    }
+
+    @Override
+    public DescriptorTable descriptors() {
+        return this.descriptors.get();
+    }
+
+    @Override
+    public HierarchyIndex hierarchy() {
+        return this.hierarchy.get();
+    }
+
+    @Override
+    public MemberIndex members() {
+        return this.members.get();
+    }
+
+    @Override
+    public PackageIndex packages() {
+        return this.packages.get();
+    }
+
+
+    /// @throws InvalidClassPointerException if no layer contains the class
+    private Model owner(ClassPointer pointer) throws InvalidClassPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleClassPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleClassPointer");
+        };
+        var index = layerIndex(simplePtr.name());
+        if (index == MISSING) {
+            throw new InvalidClassPointerException(pointer);
+        }
+        return this.layers.get(index);
+    }
+
+    private int layerIndex(String name) {
+        var index = this.resolved.get(name);
+        if (index != null) {
+            return index;
+        }
+        for (var i = 0; i < this.layers.size(); i++) {
+            if (!this.filters.get(i).get().mightContain(name)) {
+                continue;
+            }
+            if (this.layers.get(i).getClassPointer(name) != null) {
+                // racing threads compute the same index, so the first result can be kept without locking
+                this.resolved.putIfAbsent(name, i);
+                return i;
+            }
+        }
+        // misses are answered by the filters, caching them would grow without bound
+        return MISSING;
+    }
+
+    private List<ClassModel> collectClasses() {
+        var seen = new HashSet<String>();
+        var classes = new ArrayList<ClassModel>();
+        for (var layer : this.layers) {
+            for (var classModel : layer.classes()) {
+                if (seen.add(classModel.binaryName())) {
+                    classes.add(classModel);
+                }
+            }
+        }
+        return Collections.unmodifiableList(classes);
+    }
+}
@@ -0,0 +1,911 @@
+package org.karina.model.model.impl;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.exceptions.InvalidClassPointerException;
+import org.karina.model.exceptions.InvalidFieldPointerException;
+import org.karina.model.exceptions.InvalidGenericPointerException;
+import org.karina.model.exceptions.InvalidMethodPointerException;
+import org.karina.model.model.*;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.FieldPointer;
+import org.karina.model.model.pointer.GenericPointer;
+import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.typing.GenericArgument;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+import org.karina.model.util.Lazy;
+import org.karina.model.util.LoadedClassIdentifier;
+import org.karina.model.util.ObjectPath;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/// A [Model] backed by a single [ByteBuffer], for example a memory mapped file.
+///
+/// Classes, methods, fields and generics are flyweight views that only hold a offset into the buffer
+/// and decode their data on every access. The heap usage of a model is therefore independent
+/// of the number of classes it contains, which makes it suitable for keeping many large models,
+/// like multiple JDK versions, resident at the same time.
+///
+/// A model is written once with [#write(Model, Path)] or [#encode(Model)] and opened with
+/// [#open(Path)] or [#of(ByteBuffer)]. Only models using the pointers of [SimpleModel] can be encoded.
+///
+/// Differences to the encoded model:
+/// - [ClassModel#identifier()] only keeps the [LoadedClassIdentifier#identifier()] string
+/// - views are created on every access, use [Object#equals(Object)] instead of identity to compare them
+/// - member descriptors are stored, [MethodModel#descriptor(Model)] and [FieldModel#descriptor(Model)] do not resolve types.
+///   Members are not registered in the [DescriptorTable], their descriptor id is cached per string of the buffer instead
+///
+/// The buffer is only read with absolute operations, so a model can be shared between threads.
+public final class MappedModel implements Model {
+    static final int MAGIC = 0x4B4D444C;
+    static final int FORMAT_VERSION = 3;
+    static final int HEADER_SIZE = 20;
+    static final int NONE = -1;
+
+    static final byte TYPE_VOID = 0;
+    static final byte TYPE_BOOLEAN = 1;
+    static final byte TYPE_BYTE = 2;
+    static final byte TYPE_CHAR = 3;
+    static final byte TYPE_SHORT = 4;
+    static final byte TYPE_INT = 5;
+    static final byte TYPE_LONG = 6;
+    static final byte TYPE_FLOAT = 7;
+    static final byte TYPE_DOUBLE = 8;
+    static final byte TYPE_CLASS = 9;
+    static final byte TYPE_ARRAY = 10;
+    static final byte TYPE_VARIABLE = 11;
+
+    static final byte ARGUMENT_INVARIANT = 0;
+    static final byte ARGUMENT_COVARIANT = 1;
+    static final byte ARGUMENT_CONTRAVARIANT = 2;
+
+    static final byte GENERIC_OF_CLASS = 0;
+    static final byte GENERIC_OF_METHOD = 1;
+
+    static final byte VALUE_STRING = 0;
+    static final byte VALUE_INT = 1;
+    static final byte VALUE_LONG = 2;
+    static final byte VALUE_FLOAT = 3;
+    static final byte VALUE_DOUBLE = 4;
+    static final byte VALUE_BOOLEAN = 5;
+    static final byte VALUE_ANNOTATION = 6;
+    static final byte VALUE_ARRAY = 7;
+    static final byte VALUE_ENUM = 8;
+    static final byte VALUE_CLASS = 9;
+
+    private final ByteBuffer buffer;
+    private final int classCount;
+    private final int classIndexOffset;
+    private final int stringCount;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+
+    private final Lazy<DescriptorTable> descriptors = Lazy.of(() -> new DescriptorTable(this));
+    /// string id to descriptor id in [#descriptors()] plus one, `0` if not interned yet
+    private final Lazy<AtomicIntegerArray> descriptorIds = Lazy.of(() -> new AtomicIntegerArray(stringCount()));
+    private final Lazy<HierarchyIndex> hierarchy = Lazy.of(() -> HierarchyIndex.of(this));
+    private final Lazy<MemberIndex> members = Lazy.of(() -> MemberIndex.of(this));
+    private final Lazy<PackageIndex> packages = Lazy.of(() -> PackageIndex.of(this));
+
+    private MappedModel(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Buffer does not contain a encoded model");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported model format version " + buffer.getInt(4));
+        }
+        this.classCount = buffer.getInt(8);
+        this.classIndexOffset = buffer.getInt(12);
+        var stringTableOffset = buffer.getInt(16);
+        this.stringCount = buffer.getInt(stringTableOffset);
+        this.stringOffsetsOffset = stringTableOffset + 4;
+        this.stringDataOffset = this.stringOffsetsOffset + (this.stringCount + 1) * 4;
+    }
+
+    /// Encodes a model into a new heap buffer.
+    ///
+    /// @param model the model to encode
+    /// @return a read-only buffer containing the encoded model
+    /// @throws NullPointerException if `model` is `null`
+    /// @throws IllegalArgumentException if the model uses pointers not created by [SimpleModel]
+    ///                                  or contains user defined annotation values
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static ByteBuffer encode(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        return MappedModelWriter.encode(model);
+    }
+
+    /// Encodes a model and writes it to a file, replacing the file if it exists.
+    ///
+    /// @param model the model to encode
+    /// @param path  the file to write to
+    /// @throws IOException if the file cannot be written
+    /// @see #encode(Model)
+    public static void write(Model model, Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        var buffer = encode(model);
+        try (var channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /// Maps a file written by [#write(Model, Path)] into memory.
+    /// The content of the file is not copied onto the heap.
+    ///
+    /// @param path the file to map
+    /// @return a model reading from the mapped file
+    /// @throws IOException if the file cannot be read
+    /// @throws IllegalArgumentException if the file does not contain a encoded model or is larger than 2 GB
+    public static MappedModel open(Path path) throws IOException {
+        Objects.requireNonNull(path, "Path cannot be null");
+        var size = Files.size(path);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Model file '" + path + "' is larger than 2 GB");
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedModel(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /// @param buffer a buffer created by [#encode(Model)]. The buffer must not be modified afterward
+    /// @return a model reading from the buffer
+    /// @throws IllegalArgumentException if the buffer does not contain a encoded model
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static MappedModel of(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Buffer cannot be null");
+        return new MappedModel(buffer.slice());
+    }
+
+
+    @Override
+    public @Nullable ClassPointer getClassPointer(String name) {
+        if (classOffset(name) == NONE) {
+            return null;
+        }
+        return new SimpleClassPointer(name);
+    }
+
+    @Override
+    public ClassModel getClass(ClassPointer pointer) throws InvalidClassPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleClassPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleClassPointer");
+        };
+
+        var offset = classOffset(simplePtr.name());
+        if (offset != NONE) {
+            return new MappedClass(offset);
+        }
+
+        throw new InvalidClassPointerException(pointer);
+    }
+
+    @Override
+    public MethodModel getMethod(MethodPointer pointer) throws InvalidMethodPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleMethodPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleMethodPointer");
+        };
+
+        var classModel = (MappedClass) getClass(simplePtr.classPointer());
+        for (var method : classModel.methods()) {
+            if (method.name().equals(simplePtr.methodName()) && method.descriptor().equals(simplePtr.descriptor())) {
+                return method;
+            }
+        }
+
+        throw new InvalidMethodPointerException(pointer);
+    }
+
+    @Override
+    public GenericModel getGenericModel(GenericPointer pointer) throws InvalidGenericPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleGenericPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleGenericPointer");
+        };
+        var generics = switch (simplePtr) {
+            case SimpleGenericPointer.ClassGenericPointer(var ptr, var ignored) -> getClass(ptr).generics();
+            case SimpleGenericPointer.MethodGenericPointer(var ptr, var ignored) -> getMethod(ptr).generics();
+        };
+
+        for (var generic : generics) {
+            if (generic.name().equals(simplePtr.name())) {
+                return generic;
+            }
+        }
+
+        throw new InvalidGenericPointerException(pointer);
+    }
+
+    @Override
+    public FieldModel getField(FieldPointer pointer) throws InvalidFieldPointerException {
+        var simplePtr = switch (pointer) {
+            case SimpleFieldPointer ptr -> ptr;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleFieldPointer");
+        };
+
+        var classModel = (MappedClass) getClass(simplePtr.classPointer());
+        for (var field : classModel.fields()) {
+            if (field.name().equals(simplePtr.fieldName()) && field.descriptor().equals(simplePtr.descriptor())) {
+                return field;
+            }
+        }
+
+        throw new InvalidFieldPointerException(pointer);
+    }
+
+    @Override
+    public Collection<? extends ClassModel> classes() {
+        return new AbstractList<MappedClass>() {
+            @Override
+            public MappedClass get(int index) {
+                Objects.checkIndex(index, MappedModel.this.classCount);
+                return new MappedClass(MappedModel.this.buffer.getInt(MappedModel.this.classIndexOffset + index * 12 + 8));
+            }
+
+            @Override
+            public int size() {
+                return MappedModel.this.classCount;
+            }
+        };
+    }
+
+    @Override
+    public DescriptorTable descriptors() {
+        return this.descriptors.get();
+    }
+
+    @Override
+    public HierarchyIndex hierarchy() {
+        return this.hierarchy.get();
+    }
+
+    @Override
+    public MemberIndex members() {
+        return this.members.get();
+    }
+
+    @Override
+    public PackageIndex packages() {
+        return this.packages.get();
+    }
+
+    /// @return the size of the encoded model in bytes
+    @Contract(pure = true)
+    public int byteSize() {
+        return this.buffer.limit();
+    }
+
+
+    /// Binary search over the class index, which is sorted by the hash of the class name.
+    private int classOffset(String name) {
+        var hash = name.hashCode();
+        var low = 0;
+        var high = this.classCount - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var middleHash = this.buffer.getInt(this.classIndexOffset + middle * 12);
+            if (middleHash < hash) {
+                low = middle + 1;
+            } else if (middleHash > hash) {
+                high = middle - 1;
+            } else {
+                // find the first entry with the same hash, then compare the names
+                var first = middle;
+                while (first > 0 && this.buffer.getInt(this.classIndexOffset + (first - 1) * 12) == hash) {
+                    first--;
+                }
+                for (var i = first; i < this.classCount; i++) {
+                    var entry = this.classIndexOffset + i * 12;
+                    if (this.buffer.getInt(entry) != hash) {
+                        break;
+                    }
+                    if (string(this.buffer.getInt(entry + 4)).equals(name)) {
+                        return this.buffer.getInt(entry + 8);
+                    }
+                }
+                return NONE;
+            }
+        }
+        return NONE;
+    }
+
+    private int intAt(int offset, int field) {
+        return this.buffer.getInt(offset + field * 4);
+    }
+
+    private @Nullable String string(int id) {
+        if (id == NONE) {
+            return null;
+        }
+        Objects.checkIndex(id, this.stringCount);
+        var start = this.buffer.getInt(this.stringOffsetsOffset + id * 4);
+        var end = this.buffer.getInt(this.stringOffsetsOffset + id * 4 + 4);
+        var bytes = new byte[end - start];
+        this.buffer.get(this.stringDataOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int stringCount() {
+        return this.stringCount;
+    }
+
+    /// @return the id of the descriptor stored as string `id`, see [DescriptorTable.StoredDescriptor]
+    private int descriptorId(DescriptorTable table, int id) {
+        if (table != descriptors()) {
+            return table.intern(Objects.requireNonNull(string(id)));
+        }
+        // racing threads intern the same string, so the id can be stored without locking
+        var ids = this.descriptorIds.get();
+        var descriptorId = ids.get(id) - 1;
+        if (descriptorId < 0) {
+            descriptorId = table.intern(Objects.requireNonNull(string(id)));
+            ids.set(id, descriptorId + 1);
+        }
+        return descriptorId;
+    }
+
+    private @Nullable ClassPointer pointer(int id) {
+        return id == NONE ? null : new SimpleClassPointer(Objects.requireNonNull(string(id)));
+    }
+
+    /// Unlike [List#of(Object\[\])], the list may contain `null` elements, which [MappedModelWriter] writes as [#NONE].
+    private static <T> List<T> listOf(T[] elements) {
+        return Collections.unmodifiableList(Arrays.asList(elements));
+    }
+
+    private List<String> strings(int offset) {
+        var count = this.buffer.getInt(offset);
+        var strings = new String[count];
+        for (var i = 0; i < count; i++) {
+            strings[i] = string(this.buffer.getInt(offset + 4 + i * 4));
+        }
+        return listOf(strings);
+    }
+
+    private List<ClassPointer> pointers(int offset) {
+        var count = this.buffer.getInt(offset);
+        var pointers = new ClassPointer[count];
+        for (var i = 0; i < count; i++) {
+            pointers[i] = pointer(this.buffer.getInt(offset + 4 + i * 4));
+        }
+        return listOf(pointers);
+    }
+
+    private List<Type> types(int offset) {
+        var count = this.buffer.getInt(offset);
+        var types = new Type[count];
+        for (var i = 0; i < count; i++) {
+            types[i] = type(this.buffer.getInt(offset + 4 + i * 4));
+        }
+        return listOf(types);
+    }
+
+    private List<Annotation> annotations(int offset) {
+        var count = this.buffer.getInt(offset);
+        var annotations = new Annotation[count];
+        for (var i = 0; i < count; i++) {
+            annotations[i] = annotation(new Cursor(this.buffer.getInt(offset + 4 + i * 4)));
+        }
+        return listOf(annotations);
+    }
+
+    private List<MappedGeneric> generics(int offset) {
+        var count = this.buffer.getInt(offset);
+        var generics = new MappedGeneric[count];
+        for (var i = 0; i < count; i++) {
+            generics[i] = new MappedGeneric(this.buffer.getInt(offset + 4 + i * 4));
+        }
+        return listOf(generics);
+    }
+
+    private Type type(int offset) {
+        return type(new Cursor(offset));
+    }
+
+    private Type type(Cursor cursor) {
+        var tag = cursor.nextByte();
+        return switch (tag) {
+            case TYPE_VOID -> Type.VOID;
+            case TYPE_BOOLEAN -> PrimitiveType.BOOLEAN;
+            case TYPE_BYTE -> PrimitiveType.BYTE;
+            case TYPE_CHAR -> PrimitiveType.CHAR;
+            case TYPE_SHORT -> PrimitiveType.SHORT;
+            case TYPE_INT -> PrimitiveType.INT;
+            case TYPE_LONG -> PrimitiveType.LONG;
+            case TYPE_FLOAT -> PrimitiveType.FLOAT;
+            case TYPE_DOUBLE -> PrimitiveType.DOUBLE;
+            case TYPE_CLASS -> {
+                var pointer = pointer(cursor.nextInt());
+                var count = cursor.nextInt();
+                var arguments = new GenericArgument[count];
+                for (var i = 0; i < count; i++) {
+                    var variance = cursor.nextByte();
+                    var inner = (ReferenceType) type(cursor);
+                    arguments[i] = switch (variance) {
+                        case ARGUMENT_INVARIANT -> new GenericArgument.Invariant(inner);
+                        case ARGUMENT_COVARIANT -> new GenericArgument.Covariant(inner);
+                        case ARGUMENT_CONTRAVARIANT -> new GenericArgument.Contravariant(inner);
+                        default -> throw new IllegalStateException("Invalid generic argument variance " + variance);
+                    };
+                }
+                var owner = cursor.nextByte() == 0 ? null : (ReferenceType.ClassType) type(cursor);
+                yield new ReferenceType.ClassType(pointer, List.of(arguments), owner);
+            }
+            case TYPE_ARRAY -> new ReferenceType.ArrayType(type(cursor));
+            case TYPE_VARIABLE -> new ReferenceType.TypeVariableType(genericPointer(cursor));
+            default -> throw new IllegalStateException("Invalid type tag " + tag);
+        };
+    }
+
+    private GenericPointer genericPointer(Cursor cursor) {
+        var kind = cursor.nextByte();
+        return switch (kind) {
+            case GENERIC_OF_CLASS -> {
+                var classPointer = pointer(cursor.nextInt());
+                yield new SimpleGenericPointer.ClassGenericPointer(classPointer, string(cursor.nextInt()));
+            }
+            case GENERIC_OF_METHOD -> {
+                var methodPointer = new SimpleMethodPointer(
+                        pointer(cursor.nextInt()),
+                        string(cursor.nextInt()),
+                        string(cursor.nextInt())
+                );
+                yield new SimpleGenericPointer.MethodGenericPointer(methodPointer, string(cursor.nextInt()));
+            }
+            default -> throw new IllegalStateException("Invalid generic pointer kind " + kind);
+        };
+    }
+
+    private Annotation annotation(Cursor cursor) {
+        var runtimeVisible = cursor.nextByte() != 0;
+        var classPointer = pointer(cursor.nextInt());
+        var count = cursor.nextInt();
+        var entries = new Annotation.Entry[count];
+        for (var i = 0; i < count; i++) {
+            var name = string(cursor.nextInt());
+            entries[i] = new Annotation.Entry(name, value(cursor));
+        }
+        return new Annotation(runtimeVisible, classPointer, List.of(entries));
+    }
+
+    private Annotation.Value value(Cursor cursor) {
+        var tag = cursor.nextByte();
+        return switch (tag) {
+            case VALUE_STRING -> new Annotation.Value.StringValue(string(cursor.nextInt()));
+            case VALUE_INT -> new Annotation.Value.IntValue(cursor.nextInt());
+            case VALUE_LONG -> new Annotation.Value.LongValue(cursor.nextLong());
+            case VALUE_FLOAT -> new Annotation.Value.FloatValue(Float.intBitsToFloat(cursor.nextInt()));
+            case VALUE_DOUBLE -> new Annotation.Value.DoubleValue(Double.longBitsToDouble(cursor.nextLong()));
+            case VALUE_BOOLEAN -> new Annotation.Value.BooleanValue(cursor.nextByte() != 0);
+            case VALUE_ANNOTATION -> new Annotation.Value.AnnotationValue(annotation(cursor));
+            case VALUE_ARRAY -> {
+                var count = cursor.nextInt();
+                var values = new Annotation.Value[count];
+                for (var i = 0; i < count; i++) {
+                    values[i] = value(cursor);
+                }
+                yield new Annotation.Value.ArrayValue(List.of(values));
+            }
+            case VALUE_ENUM -> {
+                var enumType = Objects.requireNonNull(pointer(cursor.nextInt()));
+                yield new Annotation.Value.EnumValue(enumType, string(cursor.nextInt()));
+            }
+            case VALUE_CLASS -> new Annotation.Value.ClassValue(string(cursor.nextInt()));
+            default -> throw new IllegalStateException("Invalid annotation value tag " + tag);
+        };
+    }
+
+
+    /// A read position for sequentially encoded structures.
+    private final class Cursor {
+        private int position;
+
+        private Cursor(int position) {
+            this.position = position;
+        }
+
+        private byte nextByte() {
+            return MappedModel.this.buffer.get(this.position++);
+        }
+
+        private int nextInt() {
+            var value = MappedModel.this.buffer.getInt(this.position);
+            this.position += 4;
+            return value;
+        }
+
+        private long nextLong() {
+            var value = MappedModel.this.buffer.getLong(this.position);
+            this.position += 8;
+            return value;
+        }
+    }
+
+    /// Base class of all views, equal if they point to the same record of the same model.
+    private abstract class View {
+        final int offset;
+
+        private View(int offset) {
+            this.offset = offset;
+        }
+
+        int field(int index) {
+            return intAt(this.offset, index);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof View view && view.getClass() == getClass()
+                    && view.model() == model() && view.offset == this.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * getClass().hashCode() + this.offset;
+        }
+
+        private MappedModel model() {
+            return MappedModel.this;
+        }
+    }
+
+    private final class MappedClass extends View implements ClassModel {
+        private MappedClass(int offset) {
+            super(offset);
+        }
+
+        @Override
+        public int version() {
+            return field(0);
+        }
+
+        @Override
+        public String binaryName() {
+            return string(field(2));
+        }
+
+        @Override
+        public ObjectPath path() {
+            return ObjectPath.of(strings(field(3)));
+        }
+
+        @Override
+        public ClassPointer classPointer() {
+            return pointer(field(2));
+        }
+
+        @Override
+        public int flags() {
+            return field(1);
+        }
+
+        @Override
+        public @Nullable InnerClassInfo innerClassInfo() {
+            var name = string(field(4));
+            if (name == null) {
+                return null;
+            }
+            record MappedInnerClassInfo(String name, int flags) implements InnerClassInfo {}
+            return new MappedInnerClassInfo(name, field(5));
+        }
+
+        @Override
+        public List<MappedGeneric> generics() {
+            return MappedModel.this.generics(field(8));
+        }
+
+        @Override
+        public @Nullable ReferenceType.ClassType superClass() {
+            var offset = field(6);
+            return offset == NONE ? null : (ReferenceType.ClassType) type(offset);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<ReferenceType.ClassType> interfaces() {
+            return (List<ReferenceType.ClassType>) (List<?>) types(field(7));
+        }
+
+        @Override
+        public @Nullable String compiledSource() {
+            return string(field(9));
+        }
+
+        @Override
+        public LoadedClassIdentifier identifier() {
+            record MappedIdentifier(String identifier) implements LoadedClassIdentifier {}
+            return new MappedIdentifier(string(field(10)));
+        }
+
+        @Override
+        public @Nullable ClassPointer outerClass() {
+            return pointer(field(11));
+        }
+
+        @Override
+        public @Nullable LocalAndAnonymousInfo enclosingMethod() {
+            var classPointer = pointer(field(12));
+            if (classPointer == null) {
+                return null;
+            }
+            var methodName = string(field(13));
+            var method = methodName == null
+                    ? null
+                    : new SimpleMethodPointer(classPointer, methodName, string(field(14)));
+            record MappedLocalAndAnonymousInfo(MethodPointer method, ClassPointer classPointer)
+                    implements LocalAndAnonymousInfo {}
+            return new MappedLocalAndAnonymousInfo(method, classPointer);
+        }
+
+        @Override
+        public List<Annotation> annotations() {
+            return MappedModel.this.annotations(field(15));
+        }
+
+        @Override
+        public List<ClassPointer> nestedClasses() {
+            return pointers(field(16));
+        }
+
+        @Override
+        public @Nullable ClassPointer nestHost() {
+            return pointer(field(17));
+        }
+
+        @Override
+        public List<ClassPointer> nestMembers() {
+            return pointers(field(18));
+        }
+
+        @Override
+        public List<ClassPointer> permittedSubclasses() {
+            return pointers(field(19));
+        }
+
+        @Override
+        public List<MappedField> fields() {
+            var offset = field(20);
+            var count = MappedModel.this.buffer.getInt(offset);
+            var fields = new MappedField[count];
+            for (var i = 0; i < count; i++) {
+                fields[i] = new MappedField(MappedModel.this.buffer.getInt(offset + 4 + i * 4));
+            }
+            return List.of(fields);
+        }
+
+        @Override
+        public List<MappedMethod> methods() {
+            var offset = field(21);
+            var count = MappedModel.this.buffer.getInt(offset);
+            var methods = new MappedMethod[count];
+            for (var i = 0; i < count; i++) {
+                methods[i] = new MappedMethod(MappedModel.this.buffer.getInt(offset + 4 + i * 4));
+            }
+            return List.of(methods);
+        }
+
+        @Override
+        public String toString() {
+            return "MappedClass{" + "binaryName='" + binaryName() + '\'' + '}';
+        }
+    }
+
+    private final class MappedField extends View implements FieldModel, DescriptorTable.StoredDescriptor {
+        private MappedField(int offset) {
+            super(offset);
+        }
+
+        @Override
+        public boolean isRecordComponent() {
+            return field(4) != 0;
+        }
+
+        @Override
+        public int recordComponentIndex() {
+            return field(5);
+        }
+
+        @Override
+        public String name() {
+            return string(field(1));
+        }
+
+        @Override
+        public FieldPointer pointer() {
+            return new SimpleFieldPointer(classPointer(), name(), descriptor());
+        }
+
+        @Override
+        public int flags() {
+            return field(0);
+        }
+
+        @Override
+        public Type type() {
+            return MappedModel.this.type(field(6));
+        }
+
+        @Override
+        public @Nullable Object defaultValue() {
+            var offset = field(8);
+            if (offset == NONE) {
+                return null;
+            }
+            return switch (value(new Cursor(offset))) {
+                case Annotation.Value.StringValue(var value) -> value;
+                case Annotation.Value.IntValue(var value) -> value;
+                case Annotation.Value.LongValue(var value) -> value;
+                case Annotation.Value.FloatValue(var value) -> value;
+                case Annotation.Value.DoubleValue(var value) -> value;
+                default -> throw new IllegalStateException("Invalid field default value");
+            };
+        }
+
+        @Override
+        public List<Annotation> annotations() {
+            return MappedModel.this.annotations(field(7));
+        }
+
+        @Override
+        public ClassPointer classPointer() {
+            return MappedModel.this.pointer(field(3));
+        }
+
+        @Override
+        public String descriptor(Model model) {
+            return descriptor();
+        }
+
+        private String descriptor() {
+            return string(field(2));
+        }
+
+        @Override
+        public int descriptorId(DescriptorTable table) {
+            return MappedModel.this.descriptorId(table, field(2));
+        }
+
+        @Override
+        public String toString() {
+            return "MappedField{" + "name='" + name() + '\'' + '}';
+        }
+    }
+
+    private final class MappedMethod extends View implements MethodModel, DescriptorTable.StoredDescriptor {
+        private MappedMethod(int offset) {
+            super(offset);
+        }
+
+        @Override
+        public String name() {
+            return string(field(1));
+        }
+
+        @Override
+        public int flags() {
+            return field(0);
+        }
+
+        @Override
+        public List<MappedGeneric> generics() {
+            return MappedModel.this.generics(field(8));
+        }
+
+        @Override
+        public List<String> parameterNames() {
+            return strings(field(7));
+        }
+
+        @Override
+        public List<Type> parameterTypes() {
+            return types(field(6));
+        }
+
+        @Override
+        public Type returnType() {
+            return type(field(5));
+        }
+
+        @Override
+        public List<Annotation> annotations() {
+            return MappedModel.this.annotations(field(9));
+        }
+
+        @Override
+        public List<Type> exceptions() {
+            return types(field(10));
+        }
+
+        @Override
+        public @Nullable Annotation.Value annotationDefault() {
+            var offset = field(11);
+            return offset == NONE ? null : value(new Cursor(offset));
+        }
+
+        @Override
+        public MethodPointer pointer() {
+            return new SimpleMethodPointer(classPointer(), name(), descriptor());
+        }
+
+        @Override
+        public ClassPointer classPointer() {
+            return MappedModel.this.pointer(field(3));
+        }
+
+        @Override
+        public boolean hasInstructions() {
+            return field(4) != 0;
+        }
+
+        @Override
+        public String descriptor(Model model) {
+            return descriptor();
+        }
+
+        private String descriptor() {
+            return string(field(2));
+        }
+
+        @Override
+        public int descriptorId(DescriptorTable table) {
+            return MappedModel.this.descriptorId(table, field(2));
+        }
+
+        @Override
+        public String toString() {
+            return "MappedMethod{" + "name='" + name() + '\'' + '}';
+        }
+    }
+
+    private final class MappedGeneric extends View implements GenericModel {
+        private MappedGeneric(int offset) {
+            super(offset);
+        }
+
+        @Override
+        public String name() {
+            return string(field(0));
+        }
+
+        @Override
+        public GenericPointer pointer() {
+            return genericPointer(new Cursor(this.offset + 12));
+        }
+
+        @Override
+        public @Nullable ReferenceType classBound() {
+            var offset = field(1);
+            return offset == NONE ? null : (ReferenceType) type(offset);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<ReferenceType> interfaceBounds() {
+            return (List<ReferenceType>) (List<?>) types(field(2));
+        }
+
+        @Override
+        public String toString() {
+            return "MappedGeneric{" + "name='" + name() + '\'' + '}';
+        }
+    }
+}
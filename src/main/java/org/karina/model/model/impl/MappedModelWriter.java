@@ -0,0 +1,456 @@
+package org.karina.model.model.impl;
+
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.model.*;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.GenericPointer;
+import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.typing.GenericArgument;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.karina.model.model.impl.MappedModel.*;
+
+/// Encodes a [Model] into the binary format read by [MappedModel].
+///
+/// Child structures (types, lists, members) are written before the record referencing them,
+/// so every record only contains offsets to data that was already written.
+/// Strings are collected into a single string table at the end.
+final class MappedModelWriter {
+    private final Model model;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+    private MappedModelWriter(Model model) {
+        this.model = model;
+    }
+
+    static ByteBuffer encode(Model model) {
+        return new MappedModelWriter(model).write();
+    }
+
+    private ByteBuffer write() {
+        // header, filled in at the end
+        this.buffer.position(HEADER_SIZE);
+
+        record IndexEntry(String name, int nameId, int offset) {}
+        var index = new ArrayList<IndexEntry>(this.model.classes().size());
+        for (var classModel : this.model.classes()) {
+            var offset = writeClass(classModel);
+            index.add(new IndexEntry(classModel.binaryName(), string(classModel.binaryName()), offset));
+        }
+        index.sort(Comparator.comparingInt((IndexEntry entry) -> entry.name().hashCode())
+                             .thenComparing(IndexEntry::name));
+
+        var classIndexOffset = this.buffer.position();
+        for (var entry : index) {
+            putInt(entry.name().hashCode());
+            putInt(entry.nameId());
+            putInt(entry.offset());
+        }
+
+        var stringTableOffset = this.buffer.position();
+        var encoded = new byte[this.strings.size()][];
+        for (var i = 0; i < encoded.length; i++) {
+            encoded[i] = this.strings.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        putInt(encoded.length);
+        var position = 0;
+        for (var bytes : encoded) {
+            putInt(position);
+            position += bytes.length;
+        }
+        putInt(position);
+        for (var bytes : encoded) {
+            ensure(bytes.length);
+            this.buffer.put(bytes);
+        }
+
+        var end = this.buffer.position();
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, FORMAT_VERSION);
+        this.buffer.putInt(8, index.size());
+        this.buffer.putInt(12, classIndexOffset);
+        this.buffer.putInt(16, stringTableOffset);
+
+        return this.buffer.flip().slice(0, end).asReadOnlyBuffer();
+    }
+
+    private int writeClass(ClassModel classModel) {
+        var path = new ArrayList<String>(classModel.path().size());
+        classModel.path().forEach(path::add);
+        var pathOffset = writeStrings(path);
+
+        var superClass = classModel.superClass();
+        var superClassOffset = superClass == null ? NONE : writeType(superClass);
+        var interfacesOffset = writeTypes(classModel.interfaces());
+        var genericsOffset = writeGenerics(classModel.generics());
+        var annotationsOffset = writeAnnotations(classModel.annotations());
+        var nestedClassesOffset = writePointers(classModel.nestedClasses());
+        var nestMembersOffset = writePointers(classModel.nestMembers());
+        var permittedSubclassesOffset = writePointers(classModel.permittedSubclasses());
+
+        var fields = new int[classModel.fields().size()];
+        for (var i = 0; i < fields.length; i++) {
+            fields[i] = writeField(classModel.fields().get(i));
+        }
+        var fieldsOffset = writeOffsets(fields);
+
+        var methods = new int[classModel.methods().size()];
+        for (var i = 0; i < methods.length; i++) {
+            methods[i] = writeMethod(classModel.methods().get(i));
+        }
+        var methodsOffset = writeOffsets(methods);
+
+        var innerClassInfo = classModel.innerClassInfo();
+        var enclosingMethod = classModel.enclosingMethod();
+        var enclosingMethodPointer = enclosingMethod == null ? null : methodPointer(enclosingMethod.method());
+
+        var offset = this.buffer.position();
+        putInt(classModel.version());
+        putInt(classModel.flags());
+        putInt(string(classModel.binaryName()));
+        putInt(pathOffset);
+        putInt(innerClassInfo == null ? NONE : string(innerClassInfo.name()));
+        putInt(innerClassInfo == null ? 0 : innerClassInfo.flags());
+        putInt(superClassOffset);
+        putInt(interfacesOffset);
+        putInt(genericsOffset);
+        putInt(string(classModel.compiledSource()));
+        putInt(string(classModel.identifier().identifier()));
+        putInt(pointer(classModel.outerClass()));
+        putInt(enclosingMethod == null ? NONE : pointer(enclosingMethod.classPointer()));
+        putInt(enclosingMethodPointer == null ? NONE : string(enclosingMethodPointer.methodName()));
+        putInt(enclosingMethodPointer == null ? NONE : string(enclosingMethodPointer.descriptor()));
+        putInt(annotationsOffset);
+        putInt(nestedClassesOffset);
+        putInt(pointer(classModel.nestHost()));
+        putInt(nestMembersOffset);
+        putInt(permittedSubclassesOffset);
+        putInt(fieldsOffset);
+        putInt(methodsOffset);
+        return offset;
+    }
+
+    private int writeField(FieldModel field) {
+        var typeOffset = writeType(field.type());
+        var annotationsOffset = writeAnnotations(field.annotations());
+        var defaultValueOffset = writeConstant(field.defaultValue());
+
+        var offset = this.buffer.position();
+        putInt(field.flags());
+        putInt(string(field.name()));
+        putInt(string(field.descriptor(this.model)));
+        putInt(pointer(field.classPointer()));
+        putInt(field.isRecordComponent() ? 1 : 0);
+        putInt(field.recordComponentIndex());
+        putInt(typeOffset);
+        putInt(annotationsOffset);
+        putInt(defaultValueOffset);
+        return offset;
+    }
+
+    private int writeMethod(MethodModel method) {
+        var returnTypeOffset = writeType(method.returnType());
+        var parameterTypesOffset = writeTypes(method.parameterTypes());
+        var parameterNamesOffset = writeStrings(method.parameterNames());
+        var genericsOffset = writeGenerics(method.generics());
+        var annotationsOffset = writeAnnotations(method.annotations());
+        var exceptionsOffset = writeTypes(method.exceptions());
+        var annotationDefault = method.annotationDefault();
+        var annotationDefaultOffset = NONE;
+        if (annotationDefault != null) {
+            annotationDefaultOffset = this.buffer.position();
+            writeValue(annotationDefault);
+        }
+
+        var offset = this.buffer.position();
+        putInt(method.flags());
+        putInt(string(method.name()));
+        putInt(string(method.descriptor(this.model)));
+        putInt(pointer(method.classPointer()));
+        putInt(method.hasInstructions() ? 1 : 0);
+        putInt(returnTypeOffset);
+        putInt(parameterTypesOffset);
+        putInt(parameterNamesOffset);
+        putInt(genericsOffset);
+        putInt(annotationsOffset);
+        putInt(exceptionsOffset);
+        putInt(annotationDefaultOffset);
+        return offset;
+    }
+
+    private int writeGenerics(List<? extends GenericModel> generics) {
+        var offsets = new int[generics.size()];
+        for (var i = 0; i < offsets.length; i++) {
+            var generic = generics.get(i);
+            var classBound = generic.classBound();
+            var classBoundOffset = classBound == null ? NONE : writeType(classBound);
+            var interfaceBoundsOffset = writeTypes(generic.interfaceBounds());
+
+            offsets[i] = this.buffer.position();
+            putInt(string(generic.name()));
+            putInt(classBoundOffset);
+            putInt(interfaceBoundsOffset);
+            writeGenericPointer(generic.pointer());
+        }
+        return writeOffsets(offsets);
+    }
+
+    private int writeTypes(List<? extends Type> types) {
+        var offsets = new int[types.size()];
+        for (var i = 0; i < offsets.length; i++) {
+            offsets[i] = writeType(types.get(i));
+        }
+        return writeOffsets(offsets);
+    }
+
+    private int writeType(Type type) {
+        var offset = this.buffer.position();
+        writeTypeInline(type);
+        return offset;
+    }
+
+    private void writeTypeInline(Type type) {
+        switch (type) {
+            case Type.VoidType ignored -> putByte(TYPE_VOID);
+            case PrimitiveType.BooleanType ignored -> putByte(TYPE_BOOLEAN);
+            case PrimitiveType.ByteType ignored -> putByte(TYPE_BYTE);
+            case PrimitiveType.CharType ignored -> putByte(TYPE_CHAR);
+            case PrimitiveType.ShortType ignored -> putByte(TYPE_SHORT);
+            case PrimitiveType.IntType ignored -> putByte(TYPE_INT);
+            case PrimitiveType.LongType ignored -> putByte(TYPE_LONG);
+            case PrimitiveType.FloatType ignored -> putByte(TYPE_FLOAT);
+            case PrimitiveType.DoubleType ignored -> putByte(TYPE_DOUBLE);
+            case ReferenceType.ClassType classType -> {
+                putByte(TYPE_CLASS);
+                putInt(pointer(classType.pointer()));
+                putInt(classType.implementation().size());
+                for (var argument : classType.implementation()) {
+                    var inner = switch (argument) {
+                        case GenericArgument.Invariant(var inner1) -> {
+                            putByte(ARGUMENT_INVARIANT);
+                            yield inner1;
+                        }
+                        case GenericArgument.Covariant(var inner1) -> {
+                            putByte(ARGUMENT_COVARIANT);
+                            yield inner1;
+                        }
+                        case GenericArgument.Contravariant(var inner1) -> {
+                            putByte(ARGUMENT_CONTRAVARIANT);
+                            yield inner1;
+                        }
+                    };
+                    writeTypeInline(inner);
+                }
+                putByte((byte) (classType.owner() == null ? 0 : 1));
+                if (classType.owner() != null) {
+                    writeTypeInline(classType.owner());
+                }
+            }
+            case ReferenceType.ArrayType arrayType -> {
+                putByte(TYPE_ARRAY);
+                writeTypeInline(arrayType.component());
+            }
+            case ReferenceType.TypeVariableType typeVariableType -> {
+                putByte(TYPE_VARIABLE);
+                writeGenericPointer(typeVariableType.pointer());
+            }
+            case ReferenceType other -> throw new IllegalArgumentException("Unsupported type " + other);
+        }
+    }
+
+    private void writeGenericPointer(GenericPointer pointer) {
+        switch (pointer) {
+            case SimpleGenericPointer.ClassGenericPointer(var classPointer, var name) -> {
+                putByte(GENERIC_OF_CLASS);
+                putInt(pointer(classPointer));
+                putInt(string(name));
+            }
+            case SimpleGenericPointer.MethodGenericPointer(var methodPointer, var name) -> {
+                var simplePointer = Objects.requireNonNull(methodPointer(methodPointer));
+                putByte(GENERIC_OF_METHOD);
+                putInt(pointer(simplePointer.classPointer()));
+                putInt(string(simplePointer.methodName()));
+                putInt(string(simplePointer.descriptor()));
+                putInt(string(name));
+            }
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleGenericPointer");
+        }
+    }
+
+    private int writeAnnotations(List<Annotation> annotations) {
+        var offsets = new int[annotations.size()];
+        for (var i = 0; i < offsets.length; i++) {
+            offsets[i] = this.buffer.position();
+            writeAnnotationInline(annotations.get(i));
+        }
+        return writeOffsets(offsets);
+    }
+
+    private void writeAnnotationInline(Annotation annotation) {
+        putByte((byte) (annotation.runtimeVisible() ? 1 : 0));
+        putInt(pointer(annotation.classPointer()));
+        putInt(annotation.values().size());
+        for (var entry : annotation.values()) {
+            putInt(string(entry.name()));
+            writeValue(entry.value());
+        }
+    }
+
+    private void writeValue(Annotation.Value value) {
+        switch (value) {
+            case Annotation.Value.StringValue(var string) -> {
+                putByte(VALUE_STRING);
+                putInt(string(string));
+            }
+            case Annotation.Value.IntValue(var i) -> {
+                putByte(VALUE_INT);
+                putInt(i);
+            }
+            case Annotation.Value.LongValue(var l) -> {
+                putByte(VALUE_LONG);
+                ensure(8);
+                this.buffer.putLong(l);
+            }
+            case Annotation.Value.FloatValue(var f) -> {
+                putByte(VALUE_FLOAT);
+                ensure(4);
+                this.buffer.putFloat(f);
+            }
+            case Annotation.Value.DoubleValue(var d) -> {
+                putByte(VALUE_DOUBLE);
+                ensure(8);
+                this.buffer.putDouble(d);
+            }
+            case Annotation.Value.BooleanValue(var b) -> {
+                putByte(VALUE_BOOLEAN);
+                putByte((byte) (b ? 1 : 0));
+            }
+            case Annotation.Value.AnnotationValue(var annotation) -> {
+                putByte(VALUE_ANNOTATION);
+                writeAnnotationInline(annotation);
+            }
+            case Annotation.Value.ArrayValue(var values) -> {
+                putByte(VALUE_ARRAY);
+                putInt(values.size());
+                for (var element : values) {
+                    writeValue(element);
+                }
+            }
+            case Annotation.Value.EnumValue(var enumType, var enumName) -> {
+                putByte(VALUE_ENUM);
+                putInt(pointer(enumType));
+                putInt(string(enumName));
+            }
+            case Annotation.Value.ClassValue(var descriptor) -> {
+                putByte(VALUE_CLASS);
+                putInt(string(descriptor));
+            }
+            case Annotation.Value.UserDefinedValue ignored ->
+                    throw new IllegalArgumentException("User defined annotation values cannot be stored");
+        }
+    }
+
+    private int writeConstant(@Nullable Object constant) {
+        if (constant == null) {
+            return NONE;
+        }
+        var value = switch (constant) {
+            case String s -> new Annotation.Value.StringValue(s);
+            case Integer i -> new Annotation.Value.IntValue(i);
+            case Long l -> new Annotation.Value.LongValue(l);
+            case Float f -> new Annotation.Value.FloatValue(f);
+            case Double d -> new Annotation.Value.DoubleValue(d);
+            default -> throw new IllegalArgumentException("Unsupported field default value " + constant);
+        };
+        var offset = this.buffer.position();
+        writeValue(value);
+        return offset;
+    }
+
+    private int writePointers(List<ClassPointer> pointers) {
+        var offset = this.buffer.position();
+        putInt(pointers.size());
+        for (var pointer : pointers) {
+            putInt(pointer(pointer));
+        }
+        return offset;
+    }
+
+    private int writeStrings(List<String> strings) {
+        var offset = this.buffer.position();
+        putInt(strings.size());
+        for (var string : strings) {
+            putInt(string(string));
+        }
+        return offset;
+    }
+
+    private int writeOffsets(int[] offsets) {
+        var offset = this.buffer.position();
+        putInt(offsets.length);
+        for (var element : offsets) {
+            putInt(element);
+        }
+        return offset;
+    }
+
+    private int pointer(@Nullable ClassPointer pointer) {
+        return switch (pointer) {
+            case null -> NONE;
+            case SimpleClassPointer simplePointer -> string(simplePointer.name());
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleClassPointer");
+        };
+    }
+
+    private @Nullable SimpleMethodPointer methodPointer(@Nullable MethodPointer pointer) {
+        return switch (pointer) {
+            case null -> null;
+            case SimpleMethodPointer simplePointer -> simplePointer;
+            default -> throw new IllegalArgumentException("Pointer must be an instance of SimpleMethodPointer");
+        };
+    }
+
+    private int string(@Nullable String string) {
+        if (string == null) {
+            return NONE;
+        }
+        var id = this.stringIds.get(string);
+        if (id == null) {
+            id = this.strings.size();
+            this.strings.add(string);
+            this.stringIds.put(string, id);
+        }
+        return id;
+    }
+
+    private void putByte(byte value) {
+        ensure(1);
+        this.buffer.put(value);
+    }
+
+    private void putInt(int value) {
+        ensure(4);
+        this.buffer.putInt(value);
+    }
+
+    private void ensure(int bytes) {
+        if (this.buffer.remaining() >= bytes) {
+            return;
+        }
+        var capacity = Math.max(this.buffer.capacity() * 2L, (long) this.buffer.position() + bytes);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Model is too large to be encoded");
+        }
+        var grown = ByteBuffer.allocate((int) capacity);
+        grown.put(this.buffer.flip());
+        this.buffer = grown;
+    }
+}
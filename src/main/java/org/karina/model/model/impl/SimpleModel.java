@@ -10,6 +10,7 @@ import org.karina.model.model.pointer.ClassPointer;
 import org.karina.model.model.pointer.FieldPointer;
 import org.karina.model.model.pointer.GenericPointer;
 import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.util.Lazy;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -24,12 +25,31 @@ import java.util.Objects;
 ///
 public class SimpleModel implements Model {
     private final Map<String, ClassModel> classes;
+    private final PackageIndex packages;
+    private final Lazy<DescriptorTable> descriptors = Lazy.of(() -> new DescriptorTable(this));
+    private final Lazy<HierarchyIndex> hierarchy = Lazy.of(() -> HierarchyIndex.of(this));
+    private final Lazy<MemberIndex> members = Lazy.of(() -> MemberIndex.of(this));
+
+    /// outer class name to inner name to nested class, see [#getInnerClassPointer(ClassPointer, String)]
+    private final Lazy<Map<String, Map<String, ClassPointer>>> innerClasses = Lazy.of(this::indexInnerClasses);
 
     public SimpleModel() {
         this.classes = new HashMap<>();
+        this.packages = PackageIndex.of(this.classes.keySet());
     }
     public SimpleModel(Map<String, ClassModel> classes) {
         this.classes = new HashMap<>(classes);
+        this.packages = PackageIndex.of(this.classes.keySet());
+    }
+
+    /// For subclasses that provide their own map, e.g. a map computing classes on first access.
+    /// Only `get`, `containsKey`, `keySet` and `values` of the map are used.
+    ///
+    /// @param classes binary name to class mapping, must not be modified after the model was created
+    /// @param copy    `false` to use the map as it is, `true` to copy it like [#SimpleModel(Map)]
+    protected SimpleModel(Map<String, ClassModel> classes, boolean copy) {
+        this.classes = copy ? new HashMap<>(classes) : classes;
+        this.packages = PackageIndex.of(this.classes.keySet());
     }
 
 
@@ -67,12 +87,20 @@ public class SimpleModel implements Model {
         };
 
         var classModel = getClass(simplePtr.classPointer());
+        var descriptors = descriptors();
+        // the descriptor of the pointer is not interned, so failed lookups do not grow the table
+        var descriptorId = descriptors.find(simplePtr.descriptor());
 
         for (var method : classModel.methods()) {
             if (!method.name().equals(simplePtr.methodName())) {
                 continue;
             }
-            if (method.descriptor(this).equals(simplePtr.descriptor())) {
+            var id = descriptors.id(method);
+            if (descriptorId < 0) {
+                // interned by the member just now, if it has the same descriptor
+                descriptorId = descriptors.find(simplePtr.descriptor());
+            }
+            if (id == descriptorId) {
                 return method;
             }
         }
@@ -110,12 +138,20 @@ public class SimpleModel implements Model {
         };
 
         var classModel = getClass(simplePtr.classPointer());
+        var descriptors = descriptors();
+        // the descriptor of the pointer is not interned, so failed lookups do not grow the table
+        var descriptorId = descriptors.find(simplePtr.descriptor());
 
         for (var field : classModel.fields()) {
             if (!field.name().equals(simplePtr.fieldName())) {
                 continue;
             }
-            if (field.descriptor(this).equals(simplePtr.descriptor())) {
+            var id = descriptors.id(field);
+            if (descriptorId < 0) {
+                // interned by the member just now, if it has the same descriptor
+                descriptorId = descriptors.find(simplePtr.descriptor());
+            }
+            if (id == descriptorId) {
                 return field;
             }
         }
@@ -128,9 +164,80 @@ public class SimpleModel implements Model {
         return this.classes.values();
     }
 
+    @Override
+    public @Nullable ClassPointer getInnerClassPointer(ClassPointer outer, String innerName)
+            throws InvalidClassPointerException {
+        var outerClass = getClass(outer);
+        var innerClasses = this.innerClasses.get().get(outerClass.binaryName());
+        return innerClasses == null ? null : innerClasses.get(innerName);
+    }
+
+    @Override
+    public DescriptorTable descriptors() {
+        return this.descriptors.get();
+    }
+
+    @Override
+    public HierarchyIndex hierarchy() {
+        return this.hierarchy.get();
+    }
+
+    @Override
+    public MemberIndex members() {
+        return this.members.get();
+    }
+
+    @Override
+    public PackageIndex packages() {
+        return this.packages;
+    }
+
+
+    private Map<String, Map<String, ClassPointer>> indexInnerClasses() {
+        var index = new HashMap<String, Map<String, ClassPointer>>();
+        for (var classModel : this.classes.values()) {
+            for (var nestedClass : classModel.nestedClasses()) {
+                if (!(nestedClass instanceof SimpleClassPointer simplePtr)) {
+                    continue;
+                }
+                var nestedModel = this.classes.get(simplePtr.name());
+                if (nestedModel == null || nestedModel.innerClassInfo() == null) {
+                    continue;
+                }
+                // the first nested class with the name wins, like a scan over the nested classes
+                index.computeIfAbsent(classModel.binaryName(), ignored -> new HashMap<>())
+                     .putIfAbsent(nestedModel.innerClassInfo().name(), nestedClass);
+            }
+        }
+        return index;
+    }
+
 
     public static ClassPointer simpleClassPointer(String name) {
         Objects.requireNonNull(name, "Class name cannot be null");
         return new SimpleClassPointer(name);
     }
+
+    /// @return a pointer to the method of the class with the given name and descriptor, e.g. `(I)V`
+    public static MethodPointer simpleMethodPointer(ClassPointer classPointer, String name, String descriptor) {
+        Objects.requireNonNull(classPointer, "Class pointer cannot be null");
+        Objects.requireNonNull(name, "Method name cannot be null");
+        Objects.requireNonNull(descriptor, "Method descriptor cannot be null");
+        return new SimpleMethodPointer(classPointer, name, descriptor);
+    }
+
+    /// @return a pointer to the field of the class with the given name and descriptor, e.g. `I`
+    public static FieldPointer simpleFieldPointer(ClassPointer classPointer, String name, String descriptor) {
+        Objects.requireNonNull(classPointer, "Class pointer cannot be null");
+        Objects.requireNonNull(name, "Field name cannot be null");
+        Objects.requireNonNull(descriptor, "Field descriptor cannot be null");
+        return new SimpleFieldPointer(classPointer, name, descriptor);
+    }
+
+    /// @return a pointer to the generic of the class with the given name
+    public static GenericPointer simpleGenericPointer(ClassPointer classPointer, String name) {
+        Objects.requireNonNull(classPointer, "Class pointer cannot be null");
+        Objects.requireNonNull(name, "Generic name cannot be null");
+        return new SimpleGenericPointer.ClassGenericPointer(classPointer, name);
+    }
 }
@@ -0,0 +1,269 @@
+package org.karina.model.query;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.PackageIndex;
+import org.karina.model.model.pointer.ClassPointer;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/// A declarative query over the classes of a [Model].
+///
+/// Conditions are only recorded, all of them must match.
+/// When the query runs, the smallest candidate set of the [Model#packages()], [Model#hierarchy()]
+/// and [Model#members()] indexes is chosen for conditions on the package, the name, the super types
+/// or the annotations, instead of scanning [Model#classes()]. Large candidate sets are filtered in parallel.
+///
+/// ```java
+/// var services = ClassQuery.of(model)
+///     .inPackage("com/example/service")
+///     .subtypeOf(servicePointer)
+///     .withoutFlags(Flags.ABSTRACT)
+///     .list();
+/// ```
+///
+/// @see MethodQuery
+/// @see FieldQuery
+public final class ClassQuery {
+    private final Model model;
+    private final List<Predicate<ClassModel>> filters;
+
+    private @Nullable String name;
+    private @Nullable String packageName;
+    private @Nullable ClassPointer supertype;
+    private final List<ClassPointer> annotations;
+
+    private ClassQuery(Model model) {
+        this.model = model;
+        this.filters = new ArrayList<>();
+        this.annotations = new ArrayList<>();
+    }
+
+    private ClassQuery(ClassQuery query) {
+        this.model = query.model;
+        this.filters = new ArrayList<>(query.filters);
+        this.name = query.name;
+        this.packageName = query.packageName;
+        this.supertype = query.supertype;
+        this.annotations = new ArrayList<>(query.annotations);
+    }
+
+    /// Creates a query matching all classes of the model.
+    ///
+    /// @param model the model to query
+    /// @return a new query
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static ClassQuery of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        return new ClassQuery(model);
+    }
+
+    /// Only matches the class with the given binary name, e.g. `java/util/List`.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ClassQuery named(String binaryName) {
+        Objects.requireNonNull(binaryName, "Binary name cannot be null");
+        this.name = binaryName;
+        this.filters.add(classModel -> classModel.binaryName().equals(binaryName));
+        return this;
+    }
+
+    /// Only matches classes with a binary name accepted by the predicate.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ClassQuery nameMatches(Predicate<String> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        this.filters.add(classModel -> predicate.test(classModel.binaryName()));
+        return this;
+    }
+
+    /// Only matches classes directly in the given package, e.g. `java/util`.
+    /// Classes of sub packages do not match.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ClassQuery inPackage(String packageName) {
+        Objects.requireNonNull(packageName, "Package name cannot be null");
+        this.packageName = packageName;
+        this.filters.add(classModel -> PackageIndex.packageName(classModel.binaryName()).equals(packageName));
+        return this;
+    }
+
+    /// Only matches classes that extend or implement the given class or interface, directly or indirectly.
+    /// The class itself does not match.
+    ///
+    /// @return this query
+    /// @see org.karina.model.model.HierarchyIndex#subtypes(ClassPointer)
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ClassQuery subtypeOf(ClassPointer pointer) {
+        Objects.requireNonNull(pointer, "ClassPointer cannot be null");
+        this.supertype = pointer;
+        // the transitive subtypes are cached by the index
+        var hierarchy = this.model.hierarchy();
+        this.filters.add(classModel -> hierarchy.subtypes(pointer).contains(classModel.classPointer()));
+        return this;
+    }
+
+    /// Only matches classes with all given flags set.
+    ///
+    /// @return this query
+    /// @see org.karina.model.util.Flags
+    @Contract(value = "_ -> this", mutates = "this")
+    public ClassQuery withFlags(int flags) {
+        this.filters.add(classModel -> Queries.hasFlags(classModel.flags(), flags));
+        return this;
+    }
+
+    /// Only matches classes with none of the given flags set.
+    ///
+    /// @return this query
+    /// @see org.karina.model.util.Flags
+    @Contract(value = "_ -> this", mutates = "this")
+    public ClassQuery withoutFlags(int flags) {
+        this.filters.add(classModel -> Queries.hasNoFlags(classModel.flags(), flags));
+        return this;
+    }
+
+    /// Only matches classes annotated with the given annotation interface.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ClassQuery annotatedWith(ClassPointer annotation) {
+        Objects.requireNonNull(annotation, "ClassPointer cannot be null");
+        this.annotations.add(annotation);
+        this.filters.add(classModel -> Queries.isAnnotated(classModel.annotations(), annotation));
+        return this;
+    }
+
+    /// Only matches classes accepted by the predicate.
+    /// The predicate may be called from multiple threads at the same time.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public ClassQuery where(Predicate<? super ClassModel> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        this.filters.add(predicate::test);
+        return this;
+    }
+
+    /// A query over the methods of all classes matched by this query.
+    /// Later changes to this query do not affect the returned query.
+    ///
+    /// @return a new method query
+    @Contract(value = "-> new", pure = true)
+    public MethodQuery methods() {
+        return new MethodQuery(new ClassQuery(this));
+    }
+
+    /// A query over the fields of all classes matched by this query.
+    /// Later changes to this query do not affect the returned query.
+    ///
+    /// @return a new field query
+    @Contract(value = "-> new", pure = true)
+    public FieldQuery fields() {
+        return new FieldQuery(new ClassQuery(this));
+    }
+
+    /// Runs the query. The stream is parallel for large candidate sets.
+    ///
+    /// @return a stream of all matching classes, in no particular order
+    @Contract(pure = true)
+    public Stream<ClassModel> stream() {
+        var filters = List.copyOf(this.filters);
+        return Queries.stream(candidates()).filter(classModel -> matches(filters, classModel));
+    }
+
+    /// @return a non-mutable list of all matching classes, in no particular order
+    @Unmodifiable
+    @Contract(value = "-> new", pure = true)
+    public List<ClassModel> list() {
+        return stream().toList();
+    }
+
+    /// @return a non-mutable list of the pointers of all matching classes, in no particular order
+    @Unmodifiable
+    @Contract(value = "-> new", pure = true)
+    public List<ClassPointer> pointers() {
+        return stream().map(ClassModel::classPointer).toList();
+    }
+
+    /// @return the number of matching classes
+    @Contract(pure = true)
+    public long count() {
+        return stream().count();
+    }
+
+    Model model() {
+        return this.model;
+    }
+
+    /// @return `true` if the query has no conditions and matches every class
+    boolean isUnconstrained() {
+        return this.filters.isEmpty();
+    }
+
+    /// @return a test of the current conditions, unaffected by later changes to this query
+    Predicate<ClassModel> matcher() {
+        var filters = List.copyOf(this.filters);
+        return classModel -> matches(filters, classModel);
+    }
+
+    /// Picks the smallest set of classes that can contain a match.
+    /// The candidates still have to be tested against all conditions.
+    Collection<ClassModel> candidates() {
+        if (this.name != null) {
+            var pointer = this.model.getClassPointer(this.name);
+            return pointer == null ? List.of() : List.of(this.model.getClass(pointer));
+        }
+
+        Collection<ClassModel> candidates = Collections.unmodifiableCollection(this.model.classes());
+        if (this.packageName != null) {
+            var names = this.model.packages().classes(this.packageName);
+            if (names.size() < candidates.size()) {
+                var classes = new ArrayList<ClassModel>(names.size());
+                for (var name : names) {
+                    var pointer = this.model.getClassPointer(name);
+                    if (pointer != null) {
+                        classes.add(this.model.getClass(pointer));
+                    }
+                }
+                candidates = classes;
+            }
+        }
+        if (this.supertype != null) {
+            var subtypes = this.model.hierarchy().subtypes(this.supertype);
+            if (subtypes.size() < candidates.size()) {
+                var classes = new ArrayList<ClassModel>(subtypes.size());
+                for (var pointer : subtypes) {
+                    classes.add(this.model.getClass(pointer));
+                }
+                candidates = classes;
+            }
+        }
+        for (var annotation : this.annotations) {
+            var annotated = this.model.members().classesAnnotatedWith(annotation);
+            if (annotated.size() < candidates.size()) {
+                candidates = annotated;
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean matches(List<Predicate<ClassModel>> filters, ClassModel classModel) {
+        for (var filter : filters) {
+            if (!filter.test(classModel)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,215 @@
+package org.karina.model.query;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.FieldModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.FieldPointer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/// A declarative query over the fields of the classes matched by a [ClassQuery].
+///
+/// Conditions are only recorded, all of them must match.
+/// When the query runs, the smallest candidate set is chosen from the classes matched by the [ClassQuery]
+/// and the [Model#members()] indexes for conditions on the name, the descriptor or the annotations,
+/// instead of scanning every field of every class.
+/// Descriptors are compared by id of the [Model#descriptors()] table, so they are computed at most once per field.
+///
+/// ```java
+/// var injected = ClassQuery.of(model).inPackage("com/example")
+///     .fields()
+///     .withoutFlags(Flags.STATIC)
+///     .ofType(listPointer)
+///     .annotatedWith(injectPointer)
+///     .list();
+/// ```
+///
+/// @see ClassQuery#fields()
+public final class FieldQuery {
+    private final ClassQuery classes;
+    private final List<Predicate<FieldModel>> filters = new ArrayList<>();
+
+    private @Nullable String name;
+    private @Nullable String descriptor;
+    private final List<ClassPointer> annotations = new ArrayList<>();
+
+    FieldQuery(ClassQuery classes) {
+        this.classes = classes;
+    }
+
+    /// Creates a query matching all fields of the model.
+    ///
+    /// @param model the model to query
+    /// @return a new query
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static FieldQuery of(Model model) {
+        return ClassQuery.of(model).fields();
+    }
+
+    /// Only matches fields with the given name.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public FieldQuery named(String name) {
+        Objects.requireNonNull(name, "Name cannot be null");
+        this.name = name;
+        this.filters.add(field -> field.name().equals(name));
+        return this;
+    }
+
+    /// Only matches fields with a name accepted by the predicate.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public FieldQuery nameMatches(Predicate<String> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        this.filters.add(field -> predicate.test(field.name()));
+        return this;
+    }
+
+    /// Only matches fields with the given descriptor, e.g. `Ljava/lang/String;`.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public FieldQuery withDescriptor(String descriptor) {
+        Objects.requireNonNull(descriptor, "Descriptor cannot be null");
+        this.descriptor = descriptor;
+        var descriptors = this.classes.model().descriptors();
+        // looked up after the id of the field, which interns its descriptor, so the query does not grow the table
+        this.filters.add(field -> descriptors.id(field) == descriptors.find(descriptor));
+        return this;
+    }
+
+    /// Only matches fields with all given flags set.
+    ///
+    /// @return this query
+    /// @see org.karina.model.util.Flags
+    @Contract(value = "_ -> this", mutates = "this")
+    public FieldQuery withFlags(int flags) {
+        this.filters.add(field -> Queries.hasFlags(field.flags(), flags));
+        return this;
+    }
+
+    /// Only matches fields with none of the given flags set.
+    ///
+    /// @return this query
+    /// @see org.karina.model.util.Flags
+    @Contract(value = "_ -> this", mutates = "this")
+    public FieldQuery withoutFlags(int flags) {
+        this.filters.add(field -> Queries.hasNoFlags(field.flags(), flags));
+        return this;
+    }
+
+    /// Only matches fields of the given class type, with any generic arguments.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public FieldQuery ofType(ClassPointer pointer) {
+        Objects.requireNonNull(pointer, "ClassPointer cannot be null");
+        this.filters.add(field -> Queries.isClassType(field.type(), pointer));
+        return this;
+    }
+
+    /// Only matches fields annotated with the given annotation interface.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public FieldQuery annotatedWith(ClassPointer annotation) {
+        Objects.requireNonNull(annotation, "ClassPointer cannot be null");
+        this.annotations.add(annotation);
+        this.filters.add(field -> Queries.isAnnotated(field.annotations(), annotation));
+        return this;
+    }
+
+    /// Only matches fields accepted by the predicate.
+    /// The predicate may be called from multiple threads at the same time.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public FieldQuery where(Predicate<? super FieldModel> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        this.filters.add(predicate::test);
+        return this;
+    }
+
+    /// Runs the query. The stream is parallel for large candidate sets.
+    ///
+    /// @return a stream of all matching fields, in no particular order
+    @Contract(pure = true)
+    public Stream<FieldModel> stream() {
+        var filters = List.copyOf(this.filters);
+        return candidates().filter(field -> {
+            for (var filter : filters) {
+                if (!filter.test(field)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /// @return a non-mutable list of all matching fields, in no particular order
+    @Unmodifiable
+    @Contract(value = "-> new", pure = true)
+    public List<FieldModel> list() {
+        return stream().toList();
+    }
+
+    /// @return a non-mutable list of the pointers of all matching fields, in no particular order
+    @Unmodifiable
+    @Contract(value = "-> new", pure = true)
+    public List<FieldPointer> pointers() {
+        return stream().map(FieldModel::pointer).toList();
+    }
+
+    /// @return the number of matching fields
+    @Contract(pure = true)
+    public long count() {
+        return stream().count();
+    }
+
+
+    /// Picks the smallest set of fields that can contain a match.
+    /// Fields of an index are only kept if their class matches the class query.
+    private Stream<FieldModel> candidates() {
+        var model = this.classes.model();
+        var members = model.members();
+        List<FieldModel> indexed = null;
+        if (this.name != null) {
+            indexed = members.fieldsNamed(this.name);
+        }
+        for (var annotation : this.annotations) {
+            indexed = smaller(indexed, members.fieldsAnnotatedWith(annotation));
+        }
+        // the descriptor index computes the descriptors of all fields, so it is only built without a cheaper index
+        if (this.descriptor != null && indexed == null) {
+            indexed = members.fieldsWithDescriptor(this.descriptor);
+        }
+
+        if (indexed == null) {
+            return this.classes.stream().flatMap(classModel -> classModel.fields().stream());
+        }
+        if (this.classes.isUnconstrained()) {
+            return Queries.stream(indexed);
+        }
+        var matcher = this.classes.matcher();
+        var classCandidates = this.classes.candidates();
+        if (classCandidates.size() <= indexed.size()) {
+            return Queries.stream(classCandidates).filter(matcher).flatMap(classModel -> classModel.fields().stream());
+        }
+        return Queries.stream(indexed).filter(field -> matcher.test(model.getClass(field.classPointer())));
+    }
+
+    private static List<FieldModel> smaller(@Nullable List<FieldModel> current, List<FieldModel> candidate) {
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
+
+}
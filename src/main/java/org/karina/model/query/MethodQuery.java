@@ -0,0 +1,224 @@
+package org.karina.model.query;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.MethodModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.MethodPointer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/// A declarative query over the methods of the classes matched by a [ClassQuery].
+///
+/// Conditions are only recorded, all of them must match.
+/// When the query runs, the smallest candidate set is chosen from the classes matched by the [ClassQuery]
+/// and the [Model#members()] indexes for conditions on the name, the descriptor or the annotations,
+/// instead of scanning every method of every class.
+/// Descriptors are compared by id of the [Model#descriptors()] table, so they are computed at most once per method.
+///
+/// ```java
+/// var factories = ClassQuery.of(model).inPackage("com/example")
+///     .methods()
+///     .withFlags(Flags.PUBLIC | Flags.STATIC)
+///     .returning(listPointer)
+///     .annotatedWith(factoryPointer)
+///     .list();
+/// ```
+///
+/// @see ClassQuery#methods()
+public final class MethodQuery {
+    private final ClassQuery classes;
+    private final List<Predicate<MethodModel>> filters = new ArrayList<>();
+
+    private @Nullable String name;
+    private @Nullable String descriptor;
+    private final List<ClassPointer> annotations = new ArrayList<>();
+
+    MethodQuery(ClassQuery classes) {
+        this.classes = classes;
+    }
+
+    /// Creates a query matching all methods of the model.
+    ///
+    /// @param model the model to query
+    /// @return a new query
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static MethodQuery of(Model model) {
+        return ClassQuery.of(model).methods();
+    }
+
+    /// Only matches methods with the given name.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public MethodQuery named(String name) {
+        Objects.requireNonNull(name, "Name cannot be null");
+        this.name = name;
+        this.filters.add(method -> method.name().equals(name));
+        return this;
+    }
+
+    /// Only matches methods with a name accepted by the predicate.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public MethodQuery nameMatches(Predicate<String> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        this.filters.add(method -> predicate.test(method.name()));
+        return this;
+    }
+
+    /// Only matches methods with the given descriptor, e.g. `(Ljava/lang/String;)V`.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public MethodQuery withDescriptor(String descriptor) {
+        Objects.requireNonNull(descriptor, "Descriptor cannot be null");
+        this.descriptor = descriptor;
+        var descriptors = this.classes.model().descriptors();
+        // looked up after the id of the method, which interns its descriptor, so the query does not grow the table
+        this.filters.add(method -> descriptors.id(method) == descriptors.find(descriptor));
+        return this;
+    }
+
+    /// Only matches methods with all given flags set.
+    ///
+    /// @return this query
+    /// @see org.karina.model.util.Flags
+    @Contract(value = "_ -> this", mutates = "this")
+    public MethodQuery withFlags(int flags) {
+        this.filters.add(method -> Queries.hasFlags(method.flags(), flags));
+        return this;
+    }
+
+    /// Only matches methods with none of the given flags set.
+    ///
+    /// @return this query
+    /// @see org.karina.model.util.Flags
+    @Contract(value = "_ -> this", mutates = "this")
+    public MethodQuery withoutFlags(int flags) {
+        this.filters.add(method -> Queries.hasNoFlags(method.flags(), flags));
+        return this;
+    }
+
+    /// Only matches methods returning the given class, with any generic arguments.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public MethodQuery returning(ClassPointer pointer) {
+        Objects.requireNonNull(pointer, "ClassPointer cannot be null");
+        this.filters.add(method -> Queries.isClassType(method.returnType(), pointer));
+        return this;
+    }
+
+    /// Only matches methods with the given number of parameters.
+    ///
+    /// @return this query
+    @Contract(value = "_ -> this", mutates = "this")
+    public MethodQuery withParameterCount(int count) {
+        this.filters.add(method -> method.parameterTypes().size() == count);
+        return this;
+    }
+
+    /// Only matches methods annotated with the given annotation interface.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public MethodQuery annotatedWith(ClassPointer annotation) {
+        Objects.requireNonNull(annotation, "ClassPointer cannot be null");
+        this.annotations.add(annotation);
+        this.filters.add(method -> Queries.isAnnotated(method.annotations(), annotation));
+        return this;
+    }
+
+    /// Only matches methods accepted by the predicate.
+    /// The predicate may be called from multiple threads at the same time.
+    ///
+    /// @return this query
+    @Contract(value = "null -> fail; _ -> this", mutates = "this")
+    public MethodQuery where(Predicate<? super MethodModel> predicate) {
+        Objects.requireNonNull(predicate, "Predicate cannot be null");
+        this.filters.add(predicate::test);
+        return this;
+    }
+
+    /// Runs the query. The stream is parallel for large candidate sets.
+    ///
+    /// @return a stream of all matching methods, in no particular order
+    @Contract(pure = true)
+    public Stream<MethodModel> stream() {
+        var filters = List.copyOf(this.filters);
+        return candidates().filter(method -> {
+            for (var filter : filters) {
+                if (!filter.test(method)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /// @return a non-mutable list of all matching methods, in no particular order
+    @Unmodifiable
+    @Contract(value = "-> new", pure = true)
+    public List<MethodModel> list() {
+        return stream().toList();
+    }
+
+    /// @return a non-mutable list of the pointers of all matching methods, in no particular order
+    @Unmodifiable
+    @Contract(value = "-> new", pure = true)
+    public List<MethodPointer> pointers() {
+        return stream().map(MethodModel::pointer).toList();
+    }
+
+    /// @return the number of matching methods
+    @Contract(pure = true)
+    public long count() {
+        return stream().count();
+    }
+
+
+    /// Picks the smallest set of methods that can contain a match.
+    /// Methods of an index are only kept if their class matches the class query.
+    private Stream<MethodModel> candidates() {
+        var model = this.classes.model();
+        var members = model.members();
+        List<MethodModel> indexed = null;
+        if (this.name != null) {
+            indexed = members.methodsNamed(this.name);
+        }
+        for (var annotation : this.annotations) {
+            indexed = smaller(indexed, members.methodsAnnotatedWith(annotation));
+        }
+        // the descriptor index computes the descriptors of all methods, so it is only built without a cheaper index
+        if (this.descriptor != null && indexed == null) {
+            indexed = members.methodsWithDescriptor(this.descriptor);
+        }
+
+        if (indexed == null) {
+            return this.classes.stream().flatMap(classModel -> classModel.methods().stream());
+        }
+        if (this.classes.isUnconstrained()) {
+            return Queries.stream(indexed);
+        }
+        var matcher = this.classes.matcher();
+        var classCandidates = this.classes.candidates();
+        if (classCandidates.size() <= indexed.size()) {
+            return Queries.stream(classCandidates).filter(matcher).flatMap(classModel -> classModel.methods().stream());
+        }
+        return Queries.stream(indexed).filter(method -> matcher.test(model.getClass(method.classPointer())));
+    }
+
+    private static List<MethodModel> smaller(@Nullable List<MethodModel> current, List<MethodModel> candidate) {
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.karina.model.query;
+
+import org.karina.model.model.Annotation;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/// Predicates and helpers shared by all queries.
+final class Queries {
+    /// Candidate sets smaller than this are filtered sequentially,
+    /// as splitting them over multiple threads costs more than it saves.
+    static final int PARALLEL_THRESHOLD = 512;
+
+    private Queries() {}
+
+    static <T> Stream<T> stream(Collection<T> candidates) {
+        return candidates.size() < PARALLEL_THRESHOLD ? candidates.stream() : candidates.parallelStream();
+    }
+
+    static boolean hasFlags(int flags, int required) {
+        return (flags & required) == required;
+    }
+
+    static boolean hasNoFlags(int flags, int excluded) {
+        return (flags & excluded) == 0;
+    }
+
+    static boolean isAnnotated(List<Annotation> annotations, ClassPointer annotation) {
+        for (var candidate : annotations) {
+            if (candidate.classPointer().equals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /// @return `true` if the type is a class type of the given class, ignoring generic arguments
+    static boolean isClassType(Type type, ClassPointer pointer) {
+        return type instanceof ReferenceType.ClassType classType && classType.pointer().equals(pointer);
+    }
+}
@@ -0,0 +1,211 @@
+package org.karina.model.store;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.FieldModel;
+import org.karina.model.model.MethodModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleClassPointer;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/// Stores several versions of a model, like the models of multiple JDK releases,
+/// and shares classes and members with the same content between them.
+///
+/// Every added model becomes a version. Its classes are matched against the pool by binary name
+/// and [ClassModel#fingerprint(Model)]. A class with the same content as a pooled class is
+/// replaced by the pooled instance. Of the other classes, every method and field with the same
+/// name, descriptor and fingerprint as a pooled member is replaced by the pooled member,
+/// so classes with a changed header or a few changed members still share the rest.
+///
+/// The model of a version contains the pooled instances, so pointers of the added model are valid in it.
+/// This requires the added model to use the pointers of [org.karina.model.model.impl.SimpleModel],
+/// like all models of this library do, including mapped and layered models.
+/// The [ClassModel#identifier()] of a shared class is the identifier of the version that added it first.
+///
+/// [#remove(String)] drops a version and every pooled class and member no other version uses.
+///
+/// ```java
+/// var store = new ModelStore();
+/// store.add("17", jdk17);
+/// store.add("21", jdk21);
+/// var model = store.version("21");
+/// ```
+///
+/// Adding, removing and reading versions is thread-safe. Removing waits for running additions.
+public final class ModelStore {
+    private final Map<String, Model> versions = new ConcurrentHashMap<>();
+
+    /// Names of added versions and of versions being added, reserved before pooling.
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+
+    /// Shared by additions, exclusive while removing unused classes and members from the pool.
+    private final ReadWriteLock poolLock = new ReentrantReadWriteLock();
+
+    private final Map<ClassKey, ClassModel> classes = new ConcurrentHashMap<>();
+    private final Map<MemberKey, MethodModel> methods = new ConcurrentHashMap<>();
+    private final Map<MemberKey, FieldModel> fields = new ConcurrentHashMap<>();
+
+    /// Adds a model as a new version. The classes are matched against the pool in parallel.
+    ///
+    /// @param version the name of the version, e.g. `21`
+    /// @param model   the model of the version
+    /// @return the model of the version, containing pooled classes and members
+    /// @throws NullPointerException if `version` or `model` is `null`
+    /// @throws IllegalArgumentException if the version already exists,
+    ///                                  or the model does not use the pointers of [org.karina.model.model.impl.SimpleModel]
+    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> new", mutates = "this")
+    public Model add(String version, Model model) {
+        Objects.requireNonNull(version, "Version cannot be null");
+        Objects.requireNonNull(model, "Model cannot be null");
+        for (var classModel : model.classes()) {
+            if (!(classModel.classPointer() instanceof SimpleClassPointer)) {
+                throw new IllegalArgumentException(
+                        "Class " + classModel.binaryName() + " must use the pointers of SimpleModel"
+                );
+            }
+        }
+        // reserved before pooling, so a rejected duplicate does not add its classes to the pool
+        if (!this.reserved.add(version)) {
+            throw new IllegalArgumentException("Version " + version + " already exists");
+        }
+
+        var added = false;
+        this.poolLock.readLock().lock();
+        try {
+            var pooled = model.classes().parallelStream()
+                              .map(classModel -> pool(classModel, model))
+                              .toList();
+            var result = Model.of(pooled);
+            this.versions.put(version, result);
+            added = true;
+            return result;
+        } finally {
+            this.poolLock.readLock().unlock();
+            if (!added) {
+                this.reserved.remove(version);
+            }
+        }
+    }
+
+    /// Removes a version. Pooled classes and members that no other version uses are dropped from the pool.
+    /// Models returned for the version stay valid.
+    ///
+    /// @param version the name of the version
+    /// @return `true` if the version existed
+    /// @throws NullPointerException if `version` is `null`
+    @Contract(value = "null -> fail", mutates = "this")
+    public boolean remove(String version) {
+        Objects.requireNonNull(version, "Version cannot be null");
+        this.poolLock.writeLock().lock();
+        try {
+            if (this.versions.remove(version) == null) {
+                return false;
+            }
+            this.reserved.remove(version);
+
+            var usedClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+            var usedMembers = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (var model : this.versions.values()) {
+                for (var classModel : model.classes()) {
+                    usedClasses.add(classModel);
+                    usedMembers.addAll(classModel.methods());
+                    usedMembers.addAll(classModel.fields());
+                }
+            }
+            this.classes.values().removeIf(classModel -> !usedClasses.contains(classModel));
+            this.methods.values().removeIf(method -> !usedMembers.contains(method));
+            this.fields.values().removeIf(field -> !usedMembers.contains(field));
+            return true;
+        } finally {
+            this.poolLock.writeLock().unlock();
+        }
+    }
+
+    /// @return the model of the version, or `null` if the version does not exist
+    @Contract(pure = true)
+    public @Nullable Model get(String version) {
+        return this.versions.get(version);
+    }
+
+    /// @return the model of the version
+    /// @throws NoSuchElementException if the version does not exist
+    @Contract(pure = true)
+    public Model version(String version) {
+        var model = this.versions.get(version);
+        if (model == null) {
+            throw new NoSuchElementException("Unknown version " + version);
+        }
+        return model;
+    }
+
+    /// @return a non-mutable set of all version names
+    @Unmodifiable
+    @Contract(pure = true)
+    public Set<String> versions() {
+        return Set.copyOf(this.versions.keySet());
+    }
+
+    /// @return the number of distinct classes over all versions
+    @Contract(pure = true)
+    public int pooledClasses() {
+        return this.classes.size();
+    }
+
+    /// @return the number of distinct methods and fields over all versions
+    @Contract(pure = true)
+    public int pooledMembers() {
+        return this.methods.size() + this.fields.size();
+    }
+
+
+    private ClassModel pool(ClassModel classModel, Model model) {
+        var key = new ClassKey(classModel.binaryName(), classModel.fingerprint(model));
+        var existing = this.classes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        var methods = new ArrayList<MethodModel>(classModel.methods().size());
+        var changed = false;
+        for (var method : classModel.methods()) {
+            var memberKey = new MemberKey(
+                    classModel.binaryName(),
+                    method.name() + method.descriptor(model),
+                    method.fingerprint(model)
+            );
+            var pooled = this.methods.computeIfAbsent(memberKey, ignored -> method);
+            changed |= pooled != method;
+            methods.add(pooled);
+        }
+
+        var fields = new ArrayList<FieldModel>(classModel.fields().size());
+        for (var field : classModel.fields()) {
+            var memberKey = new MemberKey(
+                    classModel.binaryName(),
+                    field.name() + ":" + field.descriptor(model),
+                    field.fingerprint(model)
+            );
+            var pooled = this.fields.computeIfAbsent(memberKey, ignored -> field);
+            changed |= pooled != field;
+            fields.add(pooled);
+        }
+
+        var candidate = changed
+                ? ClassModel.builder(classModel).methods(methods).fields(fields).build()
+                : classModel;
+        return this.classes.computeIfAbsent(key, ignored -> candidate);
+    }
+
+    /// A class is identified by its name and content, the name guards against fingerprint collisions.
+    private record ClassKey(String binaryName, long fingerprint) {}
+
+    /// A member is identified by its class, its name and descriptor and its content.
+    private record MemberKey(String className, String signature, long fingerprint) {}
+
+}
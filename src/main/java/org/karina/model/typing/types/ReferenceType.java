@@ -1,5 +1,6 @@
 package org.karina.model.typing.types;
 
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import org.karina.model.model.ClassModel;
 import org.karina.model.model.Model;
@@ -17,16 +18,29 @@ public non-sealed interface ReferenceType extends Type {
     ///
     /// Example: \
     /// `List<Integer>` is represented as: \
-    /// `ClassType(ClassPointer(java.util.List), List.of(java.lang.Integer))`
+    /// `ClassType(ClassPointer(java.util.List), List.of(java.lang.Integer), null)`
+    ///
+    /// A non-static inner class of a generic class keeps the parameterized type of its outer class as owner. \
+    /// `Outer<String>.Inner<Integer>` is represented as: \
+    /// `ClassType(ClassPointer(Outer$Inner), List.of(java.lang.Integer), ClassType(ClassPointer(Outer), List.of(java.lang.String), null))`
     ///
     /// @param pointer        The pointer to the class.
     /// @param implementation The non-modifiable, ordered list of generics that this type represents.
     ///                       This should be the same length as the generics of the class pointed to by the pointer.
+    /// @param owner          The type of the outer class, if written as part of the type, like `Outer<String>` in
+    ///                       `Outer<String>.Inner`. `null` for top-level and static nested classes,
+    ///                       and for inner classes whose outer classes are not generic.
     record ClassType(
             ClassPointer pointer,
-            @Unmodifiable List<GenericArgument> implementation
+            @Unmodifiable List<GenericArgument> implementation,
+            @Nullable ClassType owner
     ) implements ReferenceType {
 
+        /// Creates a class type without an owner type.
+        public ClassType(ClassPointer pointer, @Unmodifiable List<GenericArgument> implementation) {
+            this(pointer, implementation, null);
+        }
+
 
         @Override
         public String getDescriptor(Model model) {
@@ -42,11 +56,11 @@ public non-sealed interface ReferenceType extends Type {
             }
             for (var type : this.implementation) {
                 if (!type.canAccessFromClass(classModel, accessors)) {
-                    return true;
+                    return false;
                 }
             }
 
-            return true;
+            return this.owner == null || this.owner.canAccessFromClass(classModel, accessors);
         }
 
 
@@ -121,23 +135,33 @@ public non-sealed interface ReferenceType extends Type {
             return "Ljava/lang/Object;";
         }
 
+        /// Only the erasures of the bounds are tested,
+        /// as bounds may refer to the type variable itself, like `T extends Comparable<T>`.
         @Override
         public boolean canAccessFromClass(ClassModel classModel, Accessors accessors) {
             var genericModel = accessors.model().getGenericModel(this.pointer);
             var classBound = genericModel.classBound();
             if (classBound != null) {
-                if (!classBound.canAccessFromClass(classModel, accessors)) {
+                if (!canAccessErasure(classBound, classModel, accessors)) {
                     return false;
                 }
             }
             var interfaceBounds = genericModel.interfaceBounds();
             for (var interfaceBound : interfaceBounds) {
-                if (!interfaceBound.canAccessFromClass(classModel, accessors)) {
+                if (!canAccessErasure(interfaceBound, classModel, accessors)) {
                     return false;
                 }
             }
             return true;
         }
+
+        private static boolean canAccessErasure(ReferenceType bound, ClassModel classModel, Accessors accessors) {
+            if (bound instanceof ClassType classType) {
+                return accessors.isClassAccessible(classModel, classType.pointer());
+            }
+            // bounds of type variables cannot be cyclic
+            return bound.canAccessFromClass(classModel, accessors);
+        }
     }
 
 
@@ -0,0 +1,128 @@
+package org.karina.model.util;
+
+import org.jetbrains.annotations.Contract;
+import org.karina.model.model.Model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+
+/// A compact Bloom filter over binary class names, for skipping lookups of absent classes.
+///
+/// [#mightContain(String)] never returns `false` for a name the filter was built with.
+/// It may return `true` for other names, with about the false positive rate the filter was built for.
+/// A test costs a few bit reads and no allocation. It reuses the cached [String#hashCode()],
+/// so it is much cheaper than a failed hash map probe through a chain of models.
+///
+/// The filter is immutable and thread-safe.
+///
+/// ```java
+/// var filter = ClassNameFilter.of(model);
+/// if (filter.mightContain(name)) {
+///     pointer = model.getClassPointer(name);
+/// }
+/// ```
+public final class ClassNameFilter {
+    /// The false positive rate used by [#of(Collection)] and [#of(Model)].
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final int MAX_HASHES = 16;
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashes;
+
+    private ClassNameFilter(int bitCount, int hashes) {
+        this.bits = new long[(bitCount + 63) >>> 6];
+        this.bitCount = bitCount;
+        this.hashes = hashes;
+    }
+
+    /// Creates a filter for the given binary names with the [#DEFAULT_FALSE_POSITIVE_RATE].
+    ///
+    /// @param binaryNames the names to add, cannot be `null` or contain `null` elements
+    /// @return a new filter
+    /// @throws NullPointerException if `binaryNames` is `null` or contains `null` elements
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static ClassNameFilter of(Collection<String> binaryNames) {
+        return of(binaryNames, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /// Creates a filter for the given binary names.
+    ///
+    /// @param binaryNames       the names to add, cannot be `null` or contain `null` elements
+    /// @param falsePositiveRate the expected rate of absent names reported as present, between 0 and 1 (exclusive)
+    /// @return a new filter
+    /// @throws NullPointerException if `binaryNames` is `null` or contains `null` elements
+    /// @throws IllegalArgumentException if the rate is not between 0 and 1 (exclusive)
+    @Contract(value = "null, _ -> fail; _, _ -> new", pure = true)
+    public static ClassNameFilter of(Collection<String> binaryNames, double falsePositiveRate) {
+        Objects.requireNonNull(binaryNames, "Binary names cannot be null");
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+
+        // optimal size and number of hashes for n elements and the rate p:
+        // m = -n * ln(p) / ln(2)^2, k = m / n * ln(2)
+        var count = Math.max(binaryNames.size(), 1);
+        var bitsPerName = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        var bitCount = (int) Math.min(Math.ceil(count * bitsPerName), Integer.MAX_VALUE - 63);
+        var hashes = (int) Math.clamp(Math.round(bitsPerName * Math.log(2)), 1, MAX_HASHES);
+
+        var filter = new ClassNameFilter(Math.max(bitCount, 64), hashes);
+        for (var binaryName : binaryNames) {
+            filter.add(Objects.requireNonNull(binaryName, "Binary name cannot be null"));
+        }
+        return filter;
+    }
+
+    /// Creates a filter for the names of all classes of the model with the [#DEFAULT_FALSE_POSITIVE_RATE].
+    /// The names are taken from the [Model#packages()] index, the classes are not accessed.
+    ///
+    /// @param model the model to index
+    /// @return a new filter
+    /// @throws NullPointerException if `model` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static ClassNameFilter of(Model model) {
+        Objects.requireNonNull(model, "Model cannot be null");
+        var packages = model.packages();
+        var names = new ArrayList<String>();
+        for (var i = 0; i < packages.packageCount(); i++) {
+            names.addAll(packages.classes(i));
+        }
+        return of(names);
+    }
+
+    /// @return `false` if the name was definitely not added to this filter,
+    ///         `true` if it was added or for a false positive
+    @Contract(pure = true)
+    public boolean mightContain(String binaryName) {
+        var hash = ContentHasher.mix(binaryName.hashCode());
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32) | 1;
+        for (var i = 0; i < this.hashes; i++) {
+            var index = Math.floorMod(h1 + i * h2, this.bitCount);
+            if ((this.bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /// @return the size of the bit set in bytes
+    @Contract(pure = true)
+    public int byteSize() {
+        return this.bits.length * Long.BYTES;
+    }
+
+    private void add(String binaryName) {
+        var hash = ContentHasher.mix(binaryName.hashCode());
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32) | 1;
+        for (var i = 0; i < this.hashes; i++) {
+            var index = Math.floorMod(h1 + i * h2, this.bitCount);
+            this.bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+}
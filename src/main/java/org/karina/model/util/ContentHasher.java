@@ -0,0 +1,86 @@
+package org.karina.model.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+/// A streaming 64-bit hash for content fingerprints.
+///
+/// The hash only depends on the sequence of values put into the hasher,
+/// so it is stable across processes and JVM versions, unlike [Object#hashCode()].
+/// It is not a cryptographic hash.
+///
+/// ```java
+/// var hash = new ContentHasher().putString("foo").putInt(42).hash();
+/// ```
+public final class ContentHasher {
+    private static final long SEED = 0x5851F42D4C957F2DL;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long INCREMENT = 0x632BE59BD9B4E019L;
+
+    /// Marker for `null` values, so that `null` and `""` hash differently.
+    private static final long NULL = 0xA0761D6478BD642FL;
+
+    private long state = SEED;
+    private long count;
+
+    @Contract(value = "_ -> this", mutates = "this")
+    public ContentHasher putLong(long value) {
+        this.state = Long.rotateLeft(this.state ^ mix(value), 31) * MULTIPLIER + INCREMENT;
+        this.count++;
+        return this;
+    }
+
+    @Contract(value = "_ -> this", mutates = "this")
+    public ContentHasher putInt(int value) {
+        return putLong(value);
+    }
+
+    @Contract(value = "_ -> this", mutates = "this")
+    public ContentHasher putBoolean(boolean value) {
+        return putLong(value ? 1 : 0);
+    }
+
+    /// Puts the length and the characters of the string, or a marker for `null`.
+    @Contract(value = "_ -> this", mutates = "this")
+    public ContentHasher putString(@Nullable String value) {
+        if (value == null) {
+            return putLong(NULL);
+        }
+        putInt(value.length());
+        var length = value.length();
+        var i = 0;
+        for (; i + 4 <= length; i += 4) {
+            putLong(
+                    (long) value.charAt(i)
+                            | (long) value.charAt(i + 1) << 16
+                            | (long) value.charAt(i + 2) << 32
+                            | (long) value.charAt(i + 3) << 48
+            );
+        }
+        if (i < length) {
+            var rest = 0L;
+            for (var shift = 0; i < length; i++, shift += 16) {
+                rest |= (long) value.charAt(i) << shift;
+            }
+            putLong(rest);
+        }
+        return this;
+    }
+
+    /// @return the hash of all values put into this hasher so far
+    @Contract(pure = true)
+    public long hash() {
+        return mix(this.state ^ this.count);
+    }
+
+    /// The finalizer of the SplitMix64 generator, spreading every input bit over the whole result.
+    ///
+    /// @return the mixed value
+    @Contract(pure = true)
+    public static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.karina.model.util;
+
+import org.jetbrains.annotations.Contract;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/// Estimates of the retained heap size of common objects.
+///
+/// The estimates assume a 64-bit JVM with compressed object pointers and compact strings,
+/// which is the default for heaps below 32 GB.
+/// They are meant for sizing and comparing models, not for exact accounting.
+public final class Footprint {
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+    public static final int ALIGNMENT = 8;
+
+    /// The class of [List#of(Object)] and [List#of(Object, Object)], storing its elements in fields.
+    private static final Class<?> SMALL_LIST = List.of(0).getClass();
+
+    /// Shallow size of each class, from the instance fields of the class and its superclasses.
+    private static final ClassValue<Long> SHALLOW = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            var references = 0;
+            var primitiveBytes = 0;
+            for (var current = type; current != null; current = current.getSuperclass()) {
+                for (var field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    var fieldType = field.getType();
+                    if (!fieldType.isPrimitive()) {
+                        references++;
+                    } else if (fieldType == long.class || fieldType == double.class) {
+                        primitiveBytes += 8;
+                    } else if (fieldType == int.class || fieldType == float.class) {
+                        primitiveBytes += 4;
+                    } else if (fieldType == short.class || fieldType == char.class) {
+                        primitiveBytes += 2;
+                    } else {
+                        primitiveBytes += 1;
+                    }
+                }
+            }
+            return object(references, primitiveBytes);
+        }
+    };
+
+    private Footprint() {}
+
+    /// @return the size rounded up to the object alignment
+    @Contract(pure = true)
+    public static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /// @param references the number of reference fields
+    /// @param primitiveBytes the sum of the sizes of all primitive fields
+    /// @return the estimated shallow size of an object
+    @Contract(pure = true)
+    public static long object(int references, int primitiveBytes) {
+        return align(OBJECT_HEADER + (long) references * REFERENCE + primitiveBytes);
+    }
+
+    /// The estimated shallow size of an object, from the instance fields declared by its concrete class
+    /// and all superclasses, without the objects it references.
+    /// Field padding is ignored and arrays are not supported, see [#array(int, int)].
+    ///
+    /// @param object the object to measure
+    /// @return the estimated shallow size of the object
+    /// @throws NullPointerException if `object` is `null`
+    @Contract(value = "null -> fail", pure = true)
+    public static long shallow(Object object) {
+        return SHALLOW.get(object.getClass());
+    }
+
+    /// @return the estimated size of an array with `length` elements of `elementSize` bytes
+    @Contract(pure = true)
+    public static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    /// @return the estimated size of an array with `length` references
+    @Contract(pure = true)
+    public static long referenceArray(int length) {
+        return array(length, REFERENCE);
+    }
+
+    /// @return the estimated retained size of a string, including its backing array
+    @Contract(pure = true)
+    public static long string(String string) {
+        var bytesPerChar = 1;
+        for (var i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return object(1, 4 + 1 + 1) + array(string.length(), bytesPerChar);
+    }
+
+    /// The estimated size of a list and its backing array, without its elements.
+    /// The shared empty list [List#of()] has no cost.
+    ///
+    /// @return the estimated retained size of the list structure
+    @Contract(pure = true)
+    public static long list(List<?> list) {
+        if (list.isEmpty() && list == List.of()) {
+            return 0;
+        }
+        if (list.getClass() == SMALL_LIST) {
+            return object(2, 0);
+        }
+        if (list instanceof ArrayList<?>) {
+            // modCount, size and elementData
+            return object(1, 8) + (list.isEmpty() ? 0 : referenceArray(list.size()));
+        }
+        return object(1, 1) + (list.isEmpty() ? 0 : referenceArray(list.size()));
+    }
+
+}
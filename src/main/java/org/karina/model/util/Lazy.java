@@ -0,0 +1,65 @@
+package org.karina.model.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/// A lazily computed value.
+///
+/// The supplier is invoked at most once, on the first call to [#get()], even when accessed
+/// from multiple threads. The supplier is released after the value has been computed.
+///
+/// @param <T> the type of the value
+public final class Lazy<T> implements Supplier<T> {
+
+    /// The supplier of the value, `null` once the value has been computed.
+    private @Nullable Supplier<? extends T> supplier;
+
+    /// The computed value, `null` until computed.
+    private volatile @Nullable T value;
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /// Creates a new lazy value.
+    ///
+    /// @param supplier the supplier of the value, cannot be `null` and should not return `null`
+    /// @throws NullPointerException if `supplier` is `null`
+    @Contract(value = "null -> fail; _ -> new", pure = true)
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier, "Supplier cannot be null");
+        return new Lazy<>(supplier);
+    }
+
+    /// Returns the value, computing it on the first call.
+    ///
+    /// @return the value
+    /// @throws NullPointerException if the supplier returned `null`
+    @Override
+    public T get() {
+        var value = this.value;
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            value = this.value;
+            if (value == null) {
+                var supplier = Objects.requireNonNull(this.supplier);
+                value = Objects.requireNonNull(supplier.get(), "Lazy value cannot be null");
+                this.value = value;
+                this.supplier = null;
+            }
+            return value;
+        }
+    }
+
+    /// @return `true` if the value has already been computed
+    @Contract(pure = true)
+    public boolean isComputed() {
+        return this.value != null;
+    }
+
+}
@@ -2,120 +2,154 @@ package org.karina.model.util;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+/// A path of string elements, like the package and class names of a binary class name.
+///
+/// Paths are nodes of a shared trie: every path points to its parent path and stores only its last element.
+/// All paths are created with [#of(String...)], [#fromBinaryName(String)], [#fromString(String, String)]
+/// or the operations of this class and are interned, so sibling paths share their prefix and
+/// equal paths are the same instance.
+/// [#append(String)], [#everythingButLast()], [#last()], [#size()] and [#hashCode()] are O(1).
+///
+/// A path keeps its prefixes reachable, but the trie only references its children weakly,
+/// so paths no longer used by any model are collected.
 public final class ObjectPath implements Iterable<String> {
+    /// The empty path and root of the trie.
+    private static final ObjectPath EMPTY = new ObjectPath(null, null);
 
-    /// The array of strings representing the elements of the path.
-    private final String[] elements;
+    /// References of collected children, removed from their parent on the next [#child(String)] call.
+    private static final ReferenceQueue<ObjectPath> COLLECTED = new ReferenceQueue<>();
 
-    /// The hash code precomputed from the elements.
+    /// The path without the last element, `null` for the empty path.
+    private final @Nullable ObjectPath parent;
+
+    /// The last element of the path, `null` for the empty path.
+    private final @Nullable String element;
+
+    /// The number of elements.
+    private final int size;
+
+    /// The hash code computed from the parent, equal to [java.util.Arrays#hashCode(Object[])] of the elements.
     private final int hashCode;
 
-    /// Creates a instance from a given array of strings.
+    /// Weakly referenced children of this path, created on the first [#child(String)] call.
+    private volatile @Nullable ConcurrentHashMap<String, ChildReference> children;
+
+    private ObjectPath(@Nullable ObjectPath parent, @Nullable String element) {
+        this.parent = parent;
+        this.element = element;
+        if (parent == null) {
+            this.size = 0;
+            this.hashCode = 1;
+        } else {
+            this.size = parent.size + 1;
+            this.hashCode = 31 * parent.hashCode + Objects.requireNonNull(element).hashCode();
+        }
+    }
+
+    /// Returns the interned path for the given elements.
     ///
     /// @param elements the array of strings, cannot be `null` or contain `null` elements
+    /// @return the interned path
     /// @throws NullPointerException if `elements` is `null` or contains `null` elements
     @Contract(value = "null -> fail", pure = true)
-    public ObjectPath(String... elements) {
+    public static ObjectPath of(String... elements) {
         Objects.requireNonNull(elements, "Elements cannot be null");
 
-        this.elements = new String[elements.length];
-        for (var i = 0; i < elements.length; i++) {
-
-            Objects.requireNonNull(elements[i], "Elements cannot contain null values");
-            this.elements[i] = elements[i];
+        var path = EMPTY;
+        for (var element : elements) {
+            path = path.child(Objects.requireNonNull(element, "Elements cannot contain null values"));
         }
-
-        this.hashCode = Arrays.hashCode(this.elements);
+        return path;
     }
 
-    /// Creates a instance from a given list of strings.
+    /// Returns the interned path for the given elements.
     ///
     /// @param list the list of strings, cannot be `null` or contain `null` elements
+    /// @return the interned path
     /// @throws NullPointerException if `list` is `null` or contains `null` elements
     @Contract(value = "null -> fail", pure = true)
-    public ObjectPath(List<String> list) {
+    public static ObjectPath of(List<String> list) {
         Objects.requireNonNull(list, "List cannot be null");
 
-        var elementCount = list.size();
-        var elements = new String[elementCount];
-
-        for (var i = 0; i < elementCount; i++) {
-            var element = list.get(i);
-
-            Objects.requireNonNull(element, "List cannot contain null elements");
-            elements[i] = element;
+        var path = EMPTY;
+        for (var element : list) {
+            path = path.child(Objects.requireNonNull(element, "List cannot contain null elements"));
         }
-
-        this.elements = elements;
-        this.hashCode = Arrays.hashCode(elements);
+        return path;
     }
 
     /// Creates a instance from a given string, using a specified split string.
+    /// Follows the semantics of [String#split(String)] with a literal separator:
+    /// trailing empty elements are removed.
     ///
     /// @param str   the path string to convert, cannot be `null`
     /// @param split the string to split the path by, cannot be `null`
-    /// @return a new {@link ObjectPath} instance representing the split path
+    /// @return the interned {@link ObjectPath} representing the split path
     /// @throws NullPointerException if `str` or `split` is `null`
-    @Contract(value = "null, _ -> fail; _, null -> fail; _, _ -> new", pure = true)
+    @Contract(value = "null, _ -> fail; _, null -> fail", pure = true)
     public static ObjectPath fromString(String str, String split) {
         Objects.requireNonNull(str, "Path string cannot be null");
         Objects.requireNonNull(split, "Split string cannot be null");
 
-        return new ObjectPath(str.split(Pattern.quote(split)));
+        if (split.isEmpty()) {
+            return of(str.split(Pattern.quote(split)));
+        }
+        return split(str, split);
     }
 
     /// Creates a instance from a Java binary class name (seperated by `/`).
     ///
     /// @param str the path string to convert, cannot be `null`
-    /// @return a new {@link ObjectPath} instance representing the slash-separated path
+    /// @return the interned {@link ObjectPath} representing the slash-separated path
     /// @throws NullPointerException if `str` is `null`
-    @Contract(value = "null -> fail; _ -> new", pure = true)
+    @Contract(value = "null -> fail", pure = true)
     public static ObjectPath fromBinaryName(String str) {
         Objects.requireNonNull(str, "Path string cannot be null");
 
-        return new ObjectPath(str.split("/"));
+        return split(str, "/");
     }
 
     /// Joins two paths into a new one.
     ///
     /// @param other the {@link ObjectPath} to join with
-    /// @return a new {@link ObjectPath} that is the concatenation of `this` and `other`
+    /// @return the interned {@link ObjectPath} that is the concatenation of `this` and `other`
     /// @throws NullPointerException if `other` is `null`
-    @Contract(value = "null -> fail; _ -> new", pure = true)
+    @Contract(value = "null -> fail", pure = true)
     public ObjectPath join(ObjectPath other) {
         Objects.requireNonNull(other, "Other ObjectPath to join cannot be null");
 
-        var strings = Arrays.copyOf(this.elements, this.elements.length + other.elements.length);
-        System.arraycopy(other.elements, 0, strings, this.elements.length, other.elements.length);
-
-        return new ObjectPath(strings);
+        var path = this;
+        for (var element : other.elements()) {
+            path = path.child(element);
+        }
+        return path;
     }
 
     /// Appends an element to the end of the path.
     ///
     /// @param element the element to append
-    /// @return the new {@link ObjectPath} with the `element` string appended
+    /// @return the interned {@link ObjectPath} with the `element` string appended
     /// @throws NullPointerException if `element` is `null`
-    @Contract(value = "null -> fail; _ -> new", pure = true)
+    @Contract(value = "null -> fail", pure = true)
     public @NotNull ObjectPath append(String element) {
         Objects.requireNonNull(element, "Element to append cannot be null");
 
-        var strings = Arrays.copyOf(this.elements, this.elements.length + 1);
-        strings[this.elements.length] = element;
-
-        return new ObjectPath(strings);
+        return child(element);
     }
 
     /// Returns a new {@link ObjectPath} with the first element removed.
     ///
-    /// @return a new {@link ObjectPath} without the first element
+    /// @return the interned {@link ObjectPath} without the first element
     /// @throws IllegalStateException if the path is empty
     @Contract(pure = true)
     public ObjectPath tail() {
@@ -123,8 +157,12 @@ public final class ObjectPath implements Iterable<String> {
             throw new IllegalStateException("Can't take tail of empty path");
         }
 
-        var strings = Arrays.copyOfRange(this.elements, 1, this.elements.length);
-        return new ObjectPath(strings);
+        var elements = elements();
+        var path = EMPTY;
+        for (var i = 1; i < elements.length; i++) {
+            path = path.child(elements[i]);
+        }
+        return path;
     }
 
     /// Returns the first element of the path.
@@ -137,7 +175,11 @@ public final class ObjectPath implements Iterable<String> {
             throw new IllegalStateException("Can't take first of empty path");
         }
 
-        return this.elements[0];
+        var path = this;
+        while (path.size > 1) {
+            path = Objects.requireNonNull(path.parent);
+        }
+        return Objects.requireNonNull(path.element);
     }
 
     /// Returns the last element of the path.
@@ -150,12 +192,12 @@ public final class ObjectPath implements Iterable<String> {
             throw new IllegalStateException("Can't take last of empty path");
         }
 
-        return this.elements[this.elements.length - 1];
+        return Objects.requireNonNull(this.element);
     }
 
     /// Returns a new {@link ObjectPath} with all elements except the last one.
     ///
-    /// @return a new {@link ObjectPath} without the last element
+    /// @return the interned {@link ObjectPath} without the last element
     /// @throws IllegalStateException if the path is empty
     @Contract(pure = true)
     public ObjectPath everythingButLast() {
@@ -163,8 +205,7 @@ public final class ObjectPath implements Iterable<String> {
             throw new IllegalStateException("Can't take 'everything but last' of empty path");
         }
 
-        var strings = Arrays.copyOf(this.elements, this.elements.length - 1);
-        return new ObjectPath(strings);
+        return Objects.requireNonNull(this.parent);
     }
 
     /// Checks if the path is empty.
@@ -172,7 +213,7 @@ public final class ObjectPath implements Iterable<String> {
     /// @return `true` if the path has no elements,`false` otherwise
     @Contract(pure = true)
     public boolean isEmpty() {
-        return this.elements.length == 0;
+        return this.size == 0;
     }
 
     /// Returns the number of elements in the path.
@@ -180,7 +221,7 @@ public final class ObjectPath implements Iterable<String> {
     /// @return the size of the path
     @Contract(pure = true)
     public int size() {
-        return this.elements.length;
+        return this.size;
     }
 
     /// Returns the elements of the path as a list.
@@ -188,7 +229,7 @@ public final class ObjectPath implements Iterable<String> {
     /// @return a non-mutable list containing the elements of the path
     @Contract(pure = true)
     public List<String> asList() {
-        return List.of(this.elements);
+        return List.of(elements());
     }
 
     /// Returns a string representation of the path, joining elements with a hyphen (`-`).
@@ -205,7 +246,7 @@ public final class ObjectPath implements Iterable<String> {
     /// @return a string representation of the path with elements joined by the delimiter
     @Contract(pure = true)
     public String mkString(String delimiter) {
-        return String.join(delimiter, this.elements);
+        return String.join(delimiter, elements());
     }
 
 
@@ -219,8 +260,27 @@ public final class ObjectPath implements Iterable<String> {
     @Override
     @Contract(pure = true)
     public boolean equals(Object object) {
-        return object instanceof ObjectPath strings && hashCode == strings.hashCode &&
-                Arrays.equals(elements, strings.elements);
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof ObjectPath other) || this.hashCode != other.hashCode || this.size != other.size) {
+            return false;
+        }
+
+        // prefixes are interned, so the walk usually ends after the first element
+        var a = this;
+        var b = other;
+        while (a != b) {
+            if (!Objects.equals(a.element, b.element)) {
+                return false;
+            }
+            a = a.parent;
+            b = b.parent;
+            if (a == null || b == null) {
+                return a == b;
+            }
+        }
+        return true;
     }
 
     /// Returns a string representation of the path using {@link #mkString()}.
@@ -232,8 +292,102 @@ public final class ObjectPath implements Iterable<String> {
 
     @Override
     public @NotNull Iterator<String> iterator() {
-        return Arrays.stream(this.elements).iterator();
+        return asList().iterator();
+    }
+
+
+    /// @return the elements of the path, in order
+    private String[] elements() {
+        var elements = new String[this.size];
+        var path = this;
+        for (var i = this.size - 1; i >= 0; i--) {
+            elements[i] = path.element;
+            path = path.parent;
+        }
+        return elements;
+    }
+
+    /// @return the interned child of this path
+    private ObjectPath child(String element) {
+        var children = this.children;
+        if (children == null) {
+            synchronized (this) {
+                children = this.children;
+                if (children == null) {
+                    children = new ConcurrentHashMap<>();
+                    this.children = children;
+                }
+            }
+        }
+
+        while (true) {
+            var reference = children.get(element);
+            var child = reference == null ? null : reference.get();
+            if (child != null) {
+                return child;
+            }
+            expungeCollected();
+            // the new child is strongly reachable until it is returned
+            var created = new ObjectPath(this, element);
+            var createdReference = new ChildReference(created);
+            var installed = reference == null
+                    ? children.putIfAbsent(element, createdReference) == null
+                    : children.replace(element, reference, createdReference);
+            if (installed) {
+                return created;
+            }
+        }
     }
 
+    private static void expungeCollected() {
+        ChildReference reference;
+        while ((reference = (ChildReference) COLLECTED.poll()) != null) {
+            var siblings = reference.parent.children;
+            if (siblings != null) {
+                siblings.remove(reference.element, reference);
+            }
+        }
+    }
+
+    /// Splits the string by a non-empty literal separator, following [String#split(String)]:
+    /// a string without separator is a single element, trailing empty elements are removed.
+    private static ObjectPath split(String str, String separator) {
+        var index = str.indexOf(separator);
+        if (index < 0) {
+            return EMPTY.child(str);
+        }
+
+        var path = EMPTY;
+        var pendingEmpty = 0;
+        var start = 0;
+        while (true) {
+            var end = index < 0 ? str.length() : index;
+            if (end == start) {
+                pendingEmpty++;
+            } else {
+                for (; pendingEmpty > 0; pendingEmpty--) {
+                    path = path.child("");
+                }
+                path = path.child(str.substring(start, end));
+            }
+            if (index < 0) {
+                return path;
+            }
+            start = index + separator.length();
+            index = str.indexOf(separator, start);
+        }
+    }
+
+    /// Weak reference of an interned child, removing itself from the parent once the child was collected.
+    private static final class ChildReference extends WeakReference<ObjectPath> {
+        private final ObjectPath parent;
+        private final String element;
+
+        private ChildReference(ObjectPath child) {
+            super(child, COLLECTED);
+            this.parent = Objects.requireNonNull(child.parent);
+            this.element = Objects.requireNonNull(child.element);
+        }
+    }
 
 }
@@ -35,11 +35,7 @@ public class Accessors implements Flags {
 
 
     public boolean samePackageName(ClassModel a, ClassModel b) {
-        var preA = a.binaryName().lastIndexOf('/');
-        var preB = b.binaryName().lastIndexOf('/');
-        String packageA = a.binaryName().substring(0, Math.max(preA, 0));
-        String packageB = b.binaryName().substring(0, Math.max(preB, 0));
-        return packageA.equals(packageB);
+        return this.model.packages().samePackage(a, b);
     }
 
 
@@ -47,7 +43,7 @@ public class Accessors implements Flags {
     public boolean doesNotOverrideFinalMethod(MethodModel methodModel) {
         var methodFlags = methodModel.flags();
         var methodName = methodModel.name();
-        var methodDesc = methodModel.descriptor(this.model);
+        var methodDesc = this.model.descriptors().id(methodModel);
 
         if (Flags.isPrivate(methodFlags) || Flags.isStatic(methodFlags)) {
             return true; // private and static methods cannot be overridden
@@ -60,7 +56,7 @@ public class Accessors implements Flags {
     private boolean doesNotOverrideFinalMethodOfSuperclass(
             ClassModel classModel,
             String methodName,
-            String methodDesc,
+            int methodDesc,
             int methodFlags
     ) {
         var superClassPtr = classSuperClassPointer(classModel);
@@ -77,7 +73,7 @@ public class Accessors implements Flags {
 
     private boolean finalMethodNotOverridden(
             String methodName,
-            String methodDesc,
+            int methodDesc,
             int methodFlags,
             ClassModel superClass,
             List<? extends MethodModel> superMethodList
@@ -101,11 +97,13 @@ public class Accessors implements Flags {
 
     }
 
-    private boolean memberMethod(String methodName, String methodDesc, List<? extends MethodModel> list) {
+    /// @param methodDesc the descriptor id, see [org.karina.model.model.DescriptorTable]
+    private boolean memberMethod(String methodName, int methodDesc, List<? extends MethodModel> list) {
+        var descriptors = this.model.descriptors();
 
         for (var model : list) {
             if (model.name().equals(methodName)
-                && model.descriptor(this.model).equals(methodDesc)
+                && descriptors.id(model) == methodDesc
             ) {
                 return true;
             }
@@ -347,7 +345,8 @@ public class Accessors implements Flags {
         var cF = mC.flags();
         var aF = mA.flags();
 
-        if (!mC.name().equals(mA.name()) || !mC.descriptor(this.model).equals(mA.descriptor(this.model))) {
+        var descriptors = this.model.descriptors();
+        if (!mC.name().equals(mA.name()) || descriptors.id(mC) != descriptors.id(mA)) {
             return false;
         }
 
@@ -6,6 +6,7 @@ import org.karina.model.exceptions.UnsupportedClassVersionException;
 import org.karina.model.model.ClassModel;
 import org.karina.model.model.GenericModel;
 import org.karina.model.model.Model;
+import org.karina.model.model.pointer.ClassPointer;
 import org.karina.model.util.Flags;
 
 import java.util.*;
@@ -69,8 +70,40 @@ public final class ClassVerifier implements Flags {
     }
 
 
+    /// 4.7.31, 5.3.5
+    /// Permitted subclasses are not required to be part of the model, and the jvm ignores listed classes
+    /// that do not extend the class. Only the direction present in the model is checked:
+    /// every direct subtype of a sealed class has to be listed in its permitted subclasses.
     public void verifyPermittedSubclasses() {
-        // test duplicates and tests if they actually extend or implement the class
+        var permittedSubclasses = this.classModel.permittedSubclasses();
+        if (permittedSubclasses.isEmpty()) {
+            return;
+        }
+
+        var seen = new HashSet<ClassPointer>();
+        for (var permittedSubclass : permittedSubclasses) {
+            if (!seen.add(permittedSubclass)) {
+                throw new ClassVerifyException.InvalidPermittedSubclassException(
+                        this.classModel,
+                        permittedSubclass,
+                        "Duplicate permitted subclass"
+                );
+            }
+        }
+
+        var hierarchy = this.model.hierarchy();
+        var classPointer = this.classModel.classPointer();
+        for (var subtypes : List.of(hierarchy.directSubclasses(classPointer), hierarchy.directImplementors(classPointer))) {
+            for (var subtype : subtypes) {
+                if (!seen.contains(subtype)) {
+                    throw new ClassVerifyException.InvalidPermittedSubclassException(
+                            this.classModel,
+                            subtype,
+                            "Direct subtype of a sealed class is not a permitted subclass"
+                    );
+                }
+            }
+        }
     }
 
 
@@ -354,12 +387,13 @@ public final class ClassVerifier implements Flags {
 
         var inInterface = Flags.isInterface(this.classModel.flags());
 
-        var nameDescriptorSet = new HashMap<String, Set<String>>();
+        var descriptors = this.model.descriptors();
+        var nameDescriptorSet = new HashMap<String, Set<Integer>>();
         for (var field : this.classModel.fields()) {
             var name = field.name();
             var flags = field.flags();
-            var descriptor = field.descriptor(this.model);
-            assert this.accessors.isValidFieldDescriptor(descriptor);
+            var descriptor = descriptors.id(field);
+            assert this.accessors.isValidFieldDescriptor(descriptors.descriptor(descriptor));
 
             if (!this.accessors.isUnqualifiedName(name)) {
                 throw new ClassFormatException.InvalidFieldNameException(
@@ -375,7 +409,7 @@ public final class ClassVerifier implements Flags {
                         field
                 );
             }
-            descriptorSet.add(name);
+            descriptorSet.add(descriptor);
 
             //<editor-fold desc="Flags">
             if (inInterface) {
@@ -578,12 +612,13 @@ public final class ClassVerifier implements Flags {
 
         var inInterface = Flags.isInterface(this.classModel.flags());
 
-        var nameDescriptorSet = new HashMap<String, Set<String>>();
+        var descriptors = this.model.descriptors();
+        var nameDescriptorSet = new HashMap<String, Set<Integer>>();
         for (var method : this.classModel.methods()) {
             var flags = method.flags();
             var name = method.name();
-            var descriptor = method.descriptor(this.model);
-            assert this.accessors.isValidMethodDescriptor(descriptor);
+            var descriptor = descriptors.id(method);
+            assert this.accessors.isValidMethodDescriptor(descriptors.descriptor(descriptor));
 
             var isConstructor = name.equals("<init>");
             var isStaticInitializer = name.equals("<clinit>");
@@ -603,7 +638,7 @@ public final class ClassVerifier implements Flags {
                         method
                 );
             }
-            descriptorSet.add(name);
+            descriptorSet.add(descriptor);
 
             var needsInstructions = !Flags.isAbstract(flags) && !Flags.isNative(flags);
             var hasInstructions = method.hasInstructions();
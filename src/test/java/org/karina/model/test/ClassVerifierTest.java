@@ -0,0 +1,57 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.exceptions.ClassVerifyException;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.verify.ClassVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassVerifierTest {
+
+    private static ClassModel sealed(String... permittedSubclasses) {
+        var builder = TestModels.classBuilder("a/Sealed");
+        for (var permittedSubclass : permittedSubclasses) {
+            builder.addPermittedSubclass(SimpleModel.simpleClassPointer(permittedSubclass));
+        }
+        return builder.build();
+    }
+
+    private static ClassModel subclass(String name) {
+        return TestModels.classBuilder(name)
+                         .superClass(new ReferenceType.ClassType(SimpleModel.simpleClassPointer("a/Sealed"), List.of()))
+                         .build();
+    }
+
+    @Test
+    public void testMissingPermittedSubclass() {
+        var sealed = sealed("a/A", "a/Missing");
+        var model = Model.of(sealed, subclass("a/A"));
+        assertDoesNotThrow(() -> new ClassVerifier(model, sealed).verifyPermittedSubclasses());
+    }
+
+    @Test
+    public void testUnlistedSubclass() {
+        var sealed = sealed("a/A");
+        var model = Model.of(sealed, subclass("a/A"), subclass("a/B"));
+        assertThrows(
+                ClassVerifyException.InvalidPermittedSubclassException.class,
+                () -> new ClassVerifier(model, sealed).verifyPermittedSubclasses()
+        );
+    }
+
+    @Test
+    public void testDuplicatePermittedSubclass() {
+        var sealed = sealed("a/A", "a/A");
+        var model = Model.of(sealed, subclass("a/A"));
+        assertThrows(
+                ClassVerifyException.InvalidPermittedSubclassException.class,
+                () -> new ClassVerifier(model, sealed).verifyPermittedSubclasses()
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.exceptions.InvalidFieldPointerException;
+import org.karina.model.exceptions.InvalidMethodPointerException;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.Type;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptorTableTest {
+
+    private static Model model() {
+        return Model.of(
+                TestModels.classBuilder("a/A")
+                          .addMethod(TestModels.method("a/A", "run", Type.VOID))
+                          .addMethod(TestModels.method("a/A", "get", PrimitiveType.INT, PrimitiveType.LONG))
+                          .addField(TestModels.field("a/A", "value", PrimitiveType.INT))
+                          .build(),
+                TestModels.classBuilder("a/B")
+                          .addMethod(TestModels.method("a/B", "run", Type.VOID))
+                          .build()
+        );
+    }
+
+    @Test
+    public void testSameTable() {
+        var model = model();
+        assertSame(model.descriptors(), model.descriptors());
+        assertSame(model.hierarchy(), model.hierarchy());
+        assertSame(model.packages(), model.packages());
+    }
+
+    @Test
+    public void testIdStability() {
+        var model = model();
+        var descriptors = model.descriptors();
+        var a = model.getClass(model.getClassPointer("a/A"));
+        var b = model.getClass(model.getClassPointer("a/B"));
+
+        var run = descriptors.id(a.methods().getFirst());
+        var get = descriptors.id(a.methods().get(1));
+        assertEquals(run, descriptors.id(a.methods().getFirst()));
+        assertEquals(run, descriptors.id(b.methods().getFirst()));
+        assertNotEquals(run, get);
+        assertEquals(run, descriptors.intern("()V"));
+        assertEquals(get, descriptors.intern("(J)I"));
+        assertEquals("(J)I", descriptors.descriptor(get));
+
+        var value = descriptors.id(a.fields().getFirst());
+        assertEquals(value, descriptors.intern("I"));
+        assertEquals(3, descriptors.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> descriptors.descriptor(3));
+    }
+
+    @Test
+    public void testConcurrentInterning() throws Exception {
+        var descriptors = model().descriptors();
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var results = new ArrayList<Future<int[]>>();
+            for (var thread = 0; thread < 4; thread++) {
+                results.add(executor.submit(() -> {
+                    var ids = new int[100];
+                    for (var i = 0; i < ids.length; i++) {
+                        ids[i] = descriptors.intern("(I)L" + i + ";");
+                    }
+                    return ids;
+                }));
+            }
+            var expected = results.getFirst().get();
+            for (var result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+        }
+        assertEquals(100, descriptors.size());
+        for (var i = 0; i < 100; i++) {
+            assertEquals(i, descriptors.intern(descriptors.descriptor(i)));
+        }
+    }
+
+    @Test
+    public void testLookupsDoNotInternPointers() {
+        var model = model();
+        var descriptors = model.descriptors();
+        assertEquals(-1, descriptors.find("(J)I"));
+
+        // the first lookup interns only the descriptors of the members it compares
+        var a = model.getClassPointer("a/A");
+        var get = model.getMethod(SimpleModel.simpleMethodPointer(a, "get", "(J)I"));
+        assertEquals("get", get.name());
+        assertEquals(descriptors.id(get), descriptors.find("(J)I"));
+        assertEquals("value", model.getField(SimpleModel.simpleFieldPointer(a, "value", "I")).name());
+        var size = descriptors.size();
+
+        assertThrows(InvalidMethodPointerException.class,
+                () -> model.getMethod(SimpleModel.simpleMethodPointer(a, "get", "(Lx/Missing;)I")));
+        assertThrows(InvalidFieldPointerException.class,
+                () -> model.getField(SimpleModel.simpleFieldPointer(a, "value", "J")));
+        assertEquals(size, descriptors.size());
+        assertEquals(-1, descriptors.find("(Lx/Missing;)I"));
+    }
+}
@@ -0,0 +1,45 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.loading.jar.ModelLinker;
+import org.karina.model.loading.jar.ModelReader;
+import org.karina.model.model.Annotation;
+import org.karina.model.model.Fingerprints;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleModel;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FingerprintsTest {
+
+    @Test
+    public void testLinkedClassFingerprint() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "a/A", TestModels.classBytes("a/A", "java/lang/Object", null)
+        );
+        var linked = ModelLinker.DEFAULT.link(ModelReader.fromJar(jar));
+        var lazy = ModelLinker.DEFAULT.linkLazily(ModelReader.fromJar(jar));
+
+        var a = linked.getClass(linked.getClassPointer("a/A"));
+        var lazyA = lazy.getClass(lazy.getClassPointer("a/A"));
+        assertEquals(Fingerprints.ofClass(a, linked), a.fingerprint(linked));
+        assertEquals(a.fingerprint(linked), lazyA.fingerprint(lazy));
+        assertEquals(a.fingerprint(linked), a.fingerprint(Model.of(linked.classes())));
+    }
+
+    @Test
+    public void testUserDefinedValue() {
+        var annotation = new Annotation(
+                true,
+                SimpleModel.simpleClassPointer("a/Marker"),
+                List.of(new Annotation.Entry("value", new Annotation.Value.UserDefinedValue(new Object())))
+        );
+        var classModel = TestModels.classBuilder("a/A").addAnnotation(annotation).build();
+        var model = Model.of(TestModels.classBuilder("a/Marker").build(), classModel);
+        assertThrows(IllegalArgumentException.class, () -> classModel.fingerprint(model));
+    }
+}
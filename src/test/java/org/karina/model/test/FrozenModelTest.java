@@ -0,0 +1,33 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.FrozenModel;
+import org.karina.model.typing.types.PrimitiveType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrozenModelTest {
+
+    @Test
+    public void testFrozenClassesAreIdentities() {
+        var model = Model.of(
+                TestModels.classBuilder("a/A")
+                          .addField(TestModels.field("a/A", "value", PrimitiveType.INT))
+                          .build()
+        );
+        var first = FrozenModel.freeze(model);
+        var second = FrozenModel.freeze(model);
+        assertSame(first, first.freeze());
+
+        var a = first.getClass(model.getClassPointer("a/A"));
+        var b = second.getClass(model.getClassPointer("a/A"));
+        assertEquals("a/A", a.binaryName());
+        assertSame(model.getClass(model.getClassPointer("a/A")).fields().getFirst(), a.fields().getFirst());
+        assertNotEquals(a, b);
+        assertEquals(a, a);
+        assertEquals(System.identityHashCode(a), a.hashCode());
+        assertEquals(1, first.classes().size());
+        assertNotNull(first.getClassPointer("a/A"));
+    }
+}
@@ -0,0 +1,138 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.model.Annotation;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.MappedModel;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.typing.types.Type;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedModelTest {
+
+    private static Model model() {
+        var object = SimpleModel.simpleClassPointer("java/lang/Object");
+        return Model.of(
+                TestModels.classBuilder("java/lang/Object").build(),
+                TestModels.classBuilder("a/Sealed")
+                          .flags(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT)
+                          .compiledSource("Sealed.java")
+                          .addPermittedSubclass(SimpleModel.simpleClassPointer("a/A"))
+                          .addMethod(TestModels.method("a/Sealed", "run", Type.VOID))
+                          .build(),
+                TestModels.classBuilder("a/A")
+                          .superClass(new ReferenceType.ClassType(SimpleModel.simpleClassPointer("a/Sealed"), List.of()))
+                          .addMethod(TestModels.method("a/A", "run", Type.VOID))
+                          .addMethod(new TestModels.TestMethod(
+                                  SimpleModel.simpleClassPointer("a/A"),
+                                  "get",
+                                  Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC,
+                                  Arrays.asList("first", null),
+                                  List.of(PrimitiveType.INT, PrimitiveType.LONG),
+                                  PrimitiveType.BOOLEAN
+                          ))
+                          .addField(TestModels.field("a/A", "value", PrimitiveType.INT))
+                          .addField(TestModels.field("a/A", "other", PrimitiveType.DOUBLE))
+                          .build(),
+                TestModels.classBuilder("a/B")
+                          .addInterface(new ReferenceType.ClassType(object, List.of()))
+                          .addAnnotation(new Annotation(true, SimpleModel.simpleClassPointer("a/Marker"), List.of(
+                                  new Annotation.Entry("type", new Annotation.Value.ClassValue("[I")),
+                                  new Annotation.Entry("policy", new Annotation.Value.EnumValue(
+                                          SimpleModel.simpleClassPointer("a/Policy"),
+                                          "KEEP"
+                                  ))
+                          )))
+                          .build()
+        );
+    }
+
+    private static void assertSameClass(Model expectedModel, ClassModel expected, Model actualModel, ClassModel actual) {
+        assertEquals(expected.binaryName(), actual.binaryName());
+        assertEquals(expected.path(), actual.path());
+        assertEquals(expected.flags(), actual.flags());
+        assertEquals(expected.compiledSource(), actual.compiledSource());
+        assertEquals(expected.superClass(), actual.superClass());
+        assertEquals(expected.interfaces(), actual.interfaces());
+        assertEquals(expected.permittedSubclasses(), actual.permittedSubclasses());
+        assertEquals(expected.annotations(), actual.annotations());
+        assertEquals(expected.methods().size(), actual.methods().size());
+        for (var i = 0; i < expected.methods().size(); i++) {
+            var expectedMethod = expected.methods().get(i);
+            var actualMethod = actual.methods().get(i);
+            assertEquals(expectedMethod.name(), actualMethod.name());
+            assertEquals(expectedMethod.flags(), actualMethod.flags());
+            assertEquals(expectedMethod.parameterNames(), actualMethod.parameterNames());
+            assertEquals(expectedMethod.parameterTypes(), actualMethod.parameterTypes());
+            assertEquals(expectedMethod.returnType(), actualMethod.returnType());
+            assertEquals(expectedMethod.pointer(), actualMethod.pointer());
+            assertEquals(expectedMethod.descriptor(expectedModel), actualMethod.descriptor(actualModel));
+        }
+        assertEquals(expected.fields().size(), actual.fields().size());
+        for (var i = 0; i < expected.fields().size(); i++) {
+            var expectedField = expected.fields().get(i);
+            var actualField = actual.fields().get(i);
+            assertEquals(expectedField.name(), actualField.name());
+            assertEquals(expectedField.flags(), actualField.flags());
+            assertEquals(expectedField.type(), actualField.type());
+            assertEquals(expectedField.pointer(), actualField.pointer());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        var model = model();
+        var path = Files.createTempFile("karina-test", ".model");
+        path.toFile().deleteOnExit();
+        MappedModel.write(model, path);
+        var mapped = MappedModel.open(path);
+
+        assertEquals(model.classes().size(), mapped.classes().size());
+        for (var expected : model.classes()) {
+            var pointer = mapped.getClassPointer(expected.binaryName());
+            assertNotNull(pointer, expected.binaryName());
+            var actual = mapped.getClass(pointer);
+            assertSameClass(model, expected, mapped, actual);
+            for (var method : expected.methods()) {
+                assertEquals(actual, mapped.getClass(mapped.getMethod(method.pointer()).classPointer()));
+            }
+        }
+        assertNull(mapped.getClassPointer("a/Missing"));
+    }
+
+    @Test
+    public void testNullParameterNames() {
+        var mapped = MappedModel.of(MappedModel.encode(model()));
+        var method = mapped.getClass(mapped.getClassPointer("a/A")).methods().get(1);
+        assertEquals(Arrays.asList("first", null), method.parameterNames());
+    }
+
+    @Test
+    public void testDescriptorIdsOfViews() {
+        var mapped = MappedModel.of(MappedModel.encode(model()));
+        var descriptors = mapped.descriptors();
+        var a = mapped.getClassPointer("a/A");
+        var sealed = mapped.getClassPointer("a/Sealed");
+
+        var run = descriptors.id(mapped.getClass(a).methods().getFirst());
+        for (var i = 0; i < 100; i++) {
+            // every access creates new views, they share the id without growing the table
+            assertEquals(run, descriptors.id(mapped.getClass(a).methods().getFirst()));
+            assertEquals(run, descriptors.id(mapped.getClass(sealed).methods().getFirst()));
+        }
+        assertEquals(run, descriptors.intern("()V"));
+        assertEquals(descriptors.intern("(IJ)Z"), descriptors.id(mapped.getClass(a).methods().get(1)));
+        assertEquals(descriptors.intern("D"), descriptors.id(mapped.getClass(a).fields().get(1)));
+        assertEquals(3, descriptors.size());
+    }
+}
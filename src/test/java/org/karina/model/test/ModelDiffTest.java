@@ -0,0 +1,81 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.diff.ModelDiff;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.Type;
+import org.objectweb.asm.Opcodes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelDiffTest {
+
+    private static ClassModel a(TestModels.TestMethod run, String getName) {
+        return TestModels.classBuilder("a/A")
+                         .addMethod(run)
+                         .addMethod(TestModels.method("a/A", getName, PrimitiveType.INT, PrimitiveType.LONG))
+                         .addField(TestModels.field("a/A", "value", PrimitiveType.INT))
+                         .build();
+    }
+
+    @Test
+    public void testChangedRenamedAndRemoved() {
+        var b = TestModels.classBuilder("a/B").build();
+        var before = Model.of(
+                a(TestModels.method("a/A", "run", Type.VOID), "get"),
+                b,
+                TestModels.classBuilder("a/C").build()
+        );
+        var finalRun = new TestModels.TestMethod(
+                SimpleModel.simpleClassPointer("a/A"),
+                "run",
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+                List.of(),
+                List.of(),
+                Type.VOID
+        );
+        var after = Model.of(
+                a(finalRun, "fetch"),
+                b,
+                TestModels.classBuilder("a/D").build()
+        );
+
+        var diff = ModelDiff.of(before, after);
+        assertFalse(diff.isEmpty());
+        assertEquals(List.of(SimpleModel.simpleClassPointer("a/D")), diff.addedClasses());
+        assertEquals(List.of(SimpleModel.simpleClassPointer("a/C")), diff.removedClasses());
+        assertEquals(1, diff.changedClasses().size());
+
+        var classDiff = diff.changedClasses().getFirst();
+        var a = SimpleModel.simpleClassPointer("a/A");
+        assertEquals(a, classDiff.pointer());
+        assertFalse(classDiff.headerChanged());
+        // a renamed member is a removed and an added member
+        assertEquals(List.of(SimpleModel.simpleMethodPointer(a, "fetch", "(J)I")), classDiff.addedMethods());
+        assertEquals(List.of(SimpleModel.simpleMethodPointer(a, "get", "(J)I")), classDiff.removedMethods());
+        assertEquals(List.of(SimpleModel.simpleMethodPointer(a, "run", "()V")), classDiff.changedMethods());
+        assertTrue(classDiff.addedFields().isEmpty());
+        assertTrue(classDiff.removedFields().isEmpty());
+        assertTrue(classDiff.changedFields().isEmpty());
+    }
+
+    @Test
+    public void testHeaderChange() {
+        var before = Model.of(TestModels.classBuilder("a/A").build());
+        var after = Model.of(TestModels.classBuilder("a/A").flags(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL).build());
+
+        var diff = ModelDiff.of(before, after);
+        assertEquals(1, diff.changedClasses().size());
+        var classDiff = diff.changedClasses().getFirst();
+        assertTrue(classDiff.headerChanged());
+        assertTrue(classDiff.changedMethods().isEmpty());
+
+        assertTrue(ModelDiff.of(before, Model.of(TestModels.classBuilder("a/A").build())).isEmpty());
+        assertTrue(ModelDiff.of(before, before).isEmpty());
+    }
+}
@@ -0,0 +1,224 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.exceptions.JarFileException;
+import org.karina.model.loading.jar.ClassConflict;
+import org.karina.model.loading.jar.LinkMetrics;
+import org.karina.model.loading.jar.ModelLinker;
+import org.karina.model.loading.jar.ModelReader;
+import org.karina.model.loading.jar.PhantomLinkResult;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.LayeredModel;
+import org.karina.model.model.impl.MappedModel;
+import org.karina.model.typing.GenericArgument;
+import org.karina.model.typing.types.ReferenceType;
+import org.karina.model.util.ClassIdentifier;
+import org.karina.model.util.Flags;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelLinkerTest {
+
+    @Test
+    public void testLinkWithPhantoms() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "a/A", TestModels.classBytes("a/A", "m/Missing", null, "m/Iface"),
+                "a/B", TestModels.classBytes("a/B", "m/Missing", null)
+        );
+        var result = ModelLinker.DEFAULT.linkWithPhantoms(ModelReader.fromJar(jar));
+        var model = result.model();
+
+        assertEquals(List.of("m/Iface", "m/Missing"), result.missingClasses());
+        assertEquals(3, result.missing().size());
+        assertEquals(5, model.classes().size());
+
+        var missing = model.getClass(model.getClassPointer("m/Missing"));
+        assertTrue(PhantomLinkResult.isPhantom(missing));
+        assertTrue(Flags.isSynthetic(missing.flags()));
+        assertNotNull(missing.superClass());
+        assertEquals(model.getClassPointer("java/lang/Object"), missing.superClass().pointer());
+        assertTrue(missing.methods().isEmpty());
+
+        var a = model.getClass(model.getClassPointer("a/A"));
+        assertFalse(PhantomLinkResult.isPhantom(a));
+        assertEquals(missing.classPointer(), a.superClass().pointer());
+        assertEquals(model.getClassPointer("m/Iface"), a.interfaces().getFirst().pointer());
+    }
+
+    @Test
+    public void testPhantomObject() throws IOException {
+        var jar = TestModels.jar("a/A", TestModels.classBytes("a/A", "java/lang/Object", null));
+        var model = ModelLinker.DEFAULT.linkWithPhantoms(ModelReader.fromJar(jar)).model();
+
+        var object = model.getClass(model.getClassPointer("java/lang/Object"));
+        assertTrue(PhantomLinkResult.isPhantom(object));
+        assertNull(object.superClass());
+    }
+
+    @Test
+    public void testLinkAgainstLayers() throws IOException {
+        var first = ClassIdentifier.of("first");
+        var second = ClassIdentifier.of("second");
+        var jdk = Model.of(
+                TestModels.classBuilder("java/lang/Object").identifier(first).build(),
+                TestModels.classBuilder("a/Shadowed").identifier(first).build()
+        );
+        var library = Model.of(
+                TestModels.classBuilder("a/Shadowed").identifier(second).build(),
+                TestModels.classBuilder("b/Library").identifier(second).build()
+        );
+        var linker = new ModelLinker(jdk, library);
+
+        // the class of the first layer shadows the one of the second layer
+        var metrics = new LinkMetrics();
+        var linked = linker.link(ModelReader.fromJar(TestModels.jar(
+                "a/A", TestModels.classBytes("a/A", "a/Shadowed", null),
+                "a/B", TestModels.classBytes("a/B", "b/Library", null)
+        )), metrics);
+        var environment = LayeredModel.of(linked, jdk, library);
+        var a = environment.getClass(environment.getClassPointer("a/A"));
+        assertEquals(first, environment.getClass(Objects.requireNonNull(a.superClass()).pointer()).identifier());
+        var b = environment.getClass(environment.getClassPointer("b/Library"));
+        assertEquals(second, b.identifier());
+        assertEquals(0, metrics.existingMisses());
+
+        assertTrue(LayeredModel.of(jdk, library).mightContain("b/Library"));
+        assertNull(LayeredModel.of(jdk, library).layerOf("b/Missing"));
+
+        // a duplicate of a class of a later layer is found as well
+        var duplicate = TestModels.jar("b/Library", TestModels.classBytes("b/Library", "java/lang/Object", null));
+        assertThrows(JarFileException.DuplicateClass.class, () -> linker.link(ModelReader.fromJar(duplicate)));
+    }
+
+    @Test
+    public void testGenericSignatureWithOwner() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "java/lang/String", TestModels.classBytes("java/lang/String", "java/lang/Object", null),
+                "java/lang/Integer", TestModels.classBytes("java/lang/Integer", "java/lang/Object", null),
+                "a/Outer", innerClassBytes("a/Outer", "<A:Ljava/lang/Object;>Ljava/lang/Object;"),
+                "a/Outer$Inner", innerClassBytes("a/Outer$Inner", "<B:Ljava/lang/Object;>Ljava/lang/Object;"),
+                "a/Sub", TestModels.classBytes(
+                        "a/Sub",
+                        "a/Outer$Inner",
+                        "<C:Ljava/lang/Object;>La/Outer<TC;>.Inner<Ljava/lang/Integer;>;"
+                ),
+                "a/Other", TestModels.classBytes(
+                        "a/Other",
+                        "a/Outer$Inner",
+                        "La/Outer<Ljava/lang/String;>.Inner<Ljava/lang/Integer;>;"
+                )
+        );
+        var model = ModelLinker.DEFAULT.link(ModelReader.fromJar(jar));
+
+        var sub = model.getClass(model.getClassPointer("a/Sub"));
+        var superClass = sub.superClass();
+        assertNotNull(superClass);
+        assertEquals(model.getClassPointer("a/Outer$Inner"), superClass.pointer());
+        var integer = new ReferenceType.ClassType(model.getClassPointer("java/lang/Integer"), List.of());
+        assertEquals(List.of(new GenericArgument.Invariant(integer)), superClass.implementation());
+
+        var owner = superClass.owner();
+        assertNotNull(owner);
+        assertNull(owner.owner());
+        assertEquals(model.getClassPointer("a/Outer"), owner.pointer());
+        var c = new ReferenceType.TypeVariableType(sub.generics().getFirst().pointer());
+        assertEquals(List.of(new GenericArgument.Invariant(c)), owner.implementation());
+
+        // the types differ only in the arguments of the owner
+        var other = model.getClass(model.getClassPointer("a/Other"));
+        assertNotNull(other.superClass());
+        assertNotEquals(superClass, other.superClass());
+        assertSame(superClass.implementation().getFirst(), other.superClass().implementation().getFirst());
+        var string = new ReferenceType.ClassType(model.getClassPointer("java/lang/String"), List.of());
+        assertEquals(List.of(new GenericArgument.Invariant(string)), other.superClass().owner().implementation());
+
+        var mapped = MappedModel.of(MappedModel.encode(model));
+        assertEquals(superClass, mapped.getClass(sub.classPointer()).superClass());
+    }
+
+    @Test
+    public void testRelinkDependents() throws IOException {
+        var linker = ModelLinker.DEFAULT;
+        var previous = linker.linkWithDependencies(ModelReader.fromJar(TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "a/A", TestModels.classBytes("a/A", "java/lang/Object", null),
+                "a/B", TestModels.classBytes("a/B", "a/A", null),
+                "a/C", TestModels.classBytes("a/C", "java/lang/Object", null)
+        )));
+        assertEquals(Set.of("a/B"), previous.dependencies().dependents("a/A"));
+        assertTrue(previous.dependencies().dependencies("a/B").contains("a/A"));
+
+        var changed = ModelReader.fromJar(TestModels.jar(
+                "a/I", TestModels.classBytes("a/I", "java/lang/Object", null),
+                "a/A", TestModels.classBytes("a/A", "java/lang/Object", null, "a/I")
+        ));
+        var result = linker.relink(previous, changed, List.of());
+        var before = previous.model();
+        var model = result.model();
+
+        // the changed class and its dependent are linked again, all other classes are reused
+        assertNotSame(before.getClass(before.getClassPointer("a/A")), model.getClass(model.getClassPointer("a/A")));
+        assertNotSame(before.getClass(before.getClassPointer("a/B")), model.getClass(model.getClassPointer("a/B")));
+        assertSame(before.getClass(before.getClassPointer("a/C")), model.getClass(model.getClassPointer("a/C")));
+        assertSame(
+                before.getClass(before.getClassPointer("java/lang/Object")),
+                model.getClass(model.getClassPointer("java/lang/Object"))
+        );
+        var a = model.getClass(model.getClassPointer("a/A"));
+        assertEquals(model.getClassPointer("a/I"), a.interfaces().getFirst().pointer());
+        assertEquals(a.classPointer(), model.getClass(model.getClassPointer("a/B")).superClass().pointer());
+        assertEquals(Set.of("a/A"), result.dependencies().dependents("a/I"));
+
+        var removed = linker.relink(result, ModelReader.fromJar(TestModels.jar()), List.of("a/C"));
+        assertNull(removed.model().getClassPointer("a/C"));
+        assertSame(a, removed.model().getClass(removed.model().getClassPointer("a/A")));
+
+        var empty = ModelReader.fromJar(TestModels.jar());
+        assertThrows(JarFileException.class, () -> linker.relink(result, empty, List.of("a/A")));
+        assertThrows(IllegalArgumentException.class, () -> linker.relink(result, empty, List.of("a/Missing")));
+    }
+
+    @Test
+    public void testFindDuplicatesAcrossLayers() throws IOException {
+        var first = ClassIdentifier.of("first");
+        var second = ClassIdentifier.of("second");
+        // the first layer is smaller than the checked model, the second one larger
+        var small = Model.of(TestModels.classBuilder("a/X").identifier(first).build());
+        var large = Model.builder();
+        for (var name : List.of("a/X", "a/Y", "b/1", "b/2", "b/3")) {
+            large.add(TestModels.classBuilder(name).identifier(second).build());
+        }
+        var linker = new ModelLinker(small, large.build());
+
+        var unlinked = ModelReader.fromJar(TestModels.jar(
+                "a/Y", TestModels.classBytes("a/Y", "java/lang/Object", null),
+                "a/X", TestModels.classBytes("a/X", "java/lang/Object", null),
+                "a/Z", TestModels.classBytes("a/Z", "java/lang/Object", null)
+        ));
+        var conflicts = linker.findDuplicates(unlinked);
+
+        assertEquals(List.of("a/X", "a/X", "a/Y"), conflicts.stream().map(ClassConflict::binaryName).toList());
+        assertEquals(List.of(first, second, second), conflicts.stream().map(ClassConflict::existingIdentifier).toList());
+        assertTrue(new ModelLinker(small).findDuplicates(ModelReader.fromJar(TestModels.jar(
+                "a/Z", TestModels.classBytes("a/Z", "java/lang/Object", null)
+        ))).isEmpty());
+    }
+
+    /// Writes `a/Outer` or its non-static inner class `a/Outer$Inner`.
+    private static byte[] innerClassBytes(String name, String signature) {
+        var writer = new ClassWriter(0);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, signature, "java/lang/Object", null);
+        writer.visitInnerClass("a/Outer$Inner", "a/Outer", "Inner", Opcodes.ACC_PUBLIC);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.LayeredModel;
+import org.karina.model.model.impl.MappedModel;
+import org.karina.model.store.ModelStore;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.Type;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelStoreTest {
+
+    private static Model model(String... classNames) {
+        var builder = Model.builder();
+        for (var name : classNames) {
+            builder.add(TestModels.classBuilder(name)
+                                  .addMethod(TestModels.method(name, "run", Type.VOID))
+                                  .addField(TestModels.field(name, "value", PrimitiveType.INT))
+                                  .build());
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testRejectedDuplicateKeepsPool() {
+        var store = new ModelStore();
+        store.add("1", model("a/A"));
+        assertEquals(1, store.pooledClasses());
+        assertEquals(2, store.pooledMembers());
+
+        assertThrows(IllegalArgumentException.class, () -> store.add("1", model("a/B")));
+        assertEquals(1, store.pooledClasses());
+        assertEquals(2, store.pooledMembers());
+        assertEquals(Set.of("1"), store.versions());
+    }
+
+    @Test
+    public void testRemove() {
+        var store = new ModelStore();
+        var first = store.add("1", model("a/A"));
+        var second = store.add("2", model("a/A", "a/B"));
+        assertSame(first.getClass(first.getClassPointer("a/A")), second.getClass(second.getClassPointer("a/A")));
+        assertEquals(2, store.pooledClasses());
+
+        assertTrue(store.remove("2"));
+        assertFalse(store.remove("2"));
+        assertNull(store.get("2"));
+        assertEquals(Set.of("1"), store.versions());
+        assertEquals(1, store.pooledClasses());
+        assertEquals(2, store.pooledMembers());
+        assertNotNull(second.getClassPointer("a/B"));
+
+        assertTrue(store.remove("1"));
+        assertEquals(0, store.pooledClasses());
+        assertEquals(0, store.pooledMembers());
+        assertNotNull(store.add("1", model("a/B")));
+    }
+
+    @Test
+    public void testPointersOfMappedAndLayeredModels() {
+        var store = new ModelStore();
+        store.add("simple", model("a/A"));
+        var mapped = MappedModel.of(MappedModel.encode(model("a/A", "a/B")));
+        var layered = LayeredModel.of(model("a/C"), mapped);
+
+        for (var entry : new Model[][] {{mapped, store.add("mapped", mapped)}, {layered, store.add("layered", layered)}}) {
+            var added = entry[0];
+            var version = entry[1];
+            for (var classModel : added.classes()) {
+                var pooled = version.getClass(classModel.classPointer());
+                assertEquals(classModel.binaryName(), pooled.binaryName());
+                var method = version.getMethod(classModel.methods().getFirst().pointer());
+                assertEquals("run", method.name());
+                var field = version.getField(classModel.fields().getFirst().pointer());
+                assertEquals("value", field.name());
+            }
+        }
+        assertEquals(3, store.pooledClasses());
+    }
+}
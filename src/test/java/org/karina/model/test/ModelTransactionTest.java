@@ -0,0 +1,122 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.exceptions.ClassFormatException;
+import org.karina.model.exceptions.DuplicateClassModel;
+import org.karina.model.exceptions.InvalidMethodPointerException;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.MappedModel;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.Type;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelTransactionTest {
+
+    private static Model model() {
+        return Model.of(
+                TestModels.classBuilder("a/A")
+                          .addMethod(TestModels.method("a/A", "run", Type.VOID))
+                          .addMethod(TestModels.method("a/A", "get", PrimitiveType.INT))
+                          .addField(TestModels.field("a/A", "value", PrimitiveType.INT))
+                          .build(),
+                TestModels.classBuilder("a/B").build()
+        );
+    }
+
+    private static String[] methodNames(Model model, String className) {
+        return model.getClass(model.getClassPointer(className))
+                    .methods()
+                    .stream()
+                    .map(method -> method.name())
+                    .toArray(String[]::new);
+    }
+
+    @Test
+    public void testAddClassAndMembers() {
+        var model = model();
+        var a = model.getClassPointer("a/A");
+        var result = model.transaction()
+                          .addClass(TestModels.classBuilder("a/C").build())
+                          .addMethod(a, TestModels.method("a/A", "stop", Type.VOID))
+                          .addField(a, TestModels.field("a/A", "count", PrimitiveType.LONG))
+                          .commit();
+
+        assertNotNull(result.getClassPointer("a/C"));
+        assertArrayEquals(new String[]{"run", "get", "stop"}, methodNames(result, "a/A"));
+        assertEquals(2, result.getClass(a).fields().size());
+        assertEquals(2, model.getClass(a).methods().size(), "base model is not modified");
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        var model = model();
+        var run = model.getClass(model.getClassPointer("a/A")).methods().getFirst().pointer();
+        var get = model.getClass(model.getClassPointer("a/A")).methods().get(1).pointer();
+        var value = model.getClass(model.getClassPointer("a/A")).fields().getFirst().pointer();
+
+        var result = model.transaction()
+                          .replaceMethod(run, TestModels.method("a/A", "run", Type.VOID, PrimitiveType.INT))
+                          .removeMethod(get)
+                          .removeField(value)
+                          .removeClass(model.getClassPointer("a/B"))
+                          .commit();
+
+        var a = result.getClass(result.getClassPointer("a/A"));
+        assertEquals(1, a.methods().size());
+        assertEquals("(I)V", a.methods().getFirst().descriptor(result));
+        assertTrue(a.fields().isEmpty());
+        assertNull(result.getClassPointer("a/B"));
+
+        // the replacement has another descriptor, so the pointer does not name a method anymore
+        var transaction = model.transaction()
+                               .replaceMethod(run, TestModels.method("a/A", "run", Type.VOID, PrimitiveType.INT))
+                               .removeMethod(run);
+        assertThrows(InvalidMethodPointerException.class, transaction::commit);
+    }
+
+    @Test
+    public void testEditsOfViews() {
+        var mapped = MappedModel.of(MappedModel.encode(model()));
+        var a = mapped.getClassPointer("a/A");
+        var run = mapped.getClass(a).methods().getFirst().pointer();
+        var get = mapped.getClass(a).methods().get(1).pointer();
+
+        var result = mapped.transaction()
+                           .removeMethod(run)
+                           .replaceMethod(get, TestModels.method("a/A", "get", PrimitiveType.LONG))
+                           .commit();
+
+        var methods = result.getClass(result.getClassPointer("a/A")).methods();
+        assertEquals(1, methods.size());
+        assertEquals("()J", methods.getFirst().descriptor(result));
+    }
+
+    @Test
+    public void testDuplicates() {
+        var model = model();
+        var a = model.getClassPointer("a/A");
+
+        var duplicateClass = model.transaction().addClass(TestModels.classBuilder("a/B").build());
+        assertThrows(DuplicateClassModel.class, duplicateClass::commit);
+
+        var duplicateMethod = model.transaction().addMethod(a, TestModels.method("a/A", "run", Type.VOID));
+        assertThrows(ClassFormatException.DuplicateMethodException.class, duplicateMethod::commit);
+
+        var duplicateField = model.transaction().addField(a, TestModels.field("a/A", "value", PrimitiveType.INT));
+        assertThrows(ClassFormatException.DuplicateFieldException.class, duplicateField::commit);
+    }
+
+    @Test
+    public void testForeignMember() {
+        var model = model();
+        var transaction = model.transaction()
+                               .addMethod(model.getClassPointer("a/A"), TestModels.method("a/B", "run", Type.VOID));
+        assertThrows(IllegalStateException.class, transaction::commit);
+
+        var conflicting = model.transaction()
+                               .removeClass(model.getClassPointer("a/A"))
+                               .addMethod(model.getClassPointer("a/A"), TestModels.method("a/A", "stop", Type.VOID));
+        assertThrows(IllegalStateException.class, conflicting::commit);
+    }
+}
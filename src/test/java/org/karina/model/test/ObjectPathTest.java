@@ -0,0 +1,58 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.util.ObjectPath;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectPathTest {
+    private static final List<String> INPUTS = List.of(
+            "", "/", "//", "a", "a/b", "/a", "a/", "a//", "//a", "a//b", "java/lang/Object", "a/b/c//d/"
+    );
+
+    @Test
+    public void testSplitLikeString() {
+        for (var input : INPUTS) {
+            var expected = Arrays.asList(input.split("/"));
+            assertEquals(expected, ObjectPath.fromBinaryName(input).asList(), input);
+            assertEquals(expected, ObjectPath.fromString(input, "/").asList(), input);
+        }
+        assertEquals(Arrays.asList("a::b".split("::")), ObjectPath.fromString("a::b", "::").asList());
+        assertEquals(Arrays.asList("ab".split(Pattern.quote(""))), ObjectPath.fromString("ab", "").asList());
+    }
+
+    @Test
+    public void testEqualsAndHashCodeLikeList() {
+        for (var input : INPUTS) {
+            var elements = Arrays.asList(input.split("/"));
+            var path = ObjectPath.fromBinaryName(input);
+            assertEquals(elements.hashCode(), path.hashCode(), input);
+            assertEquals(elements.size(), path.size(), input);
+            assertEquals(path, ObjectPath.of(elements));
+        }
+        assertNotEquals(ObjectPath.of("a", "b"), ObjectPath.of("a", "c"));
+        assertNotEquals(ObjectPath.of("a", "b"), ObjectPath.of("a"));
+        assertNotEquals(ObjectPath.of("a"), List.of("a"));
+    }
+
+    @Test
+    public void testInterning() {
+        var path = ObjectPath.fromBinaryName("a/b/C");
+        assertSame(path, ObjectPath.of("a", "b", "C"));
+        assertSame(path, ObjectPath.of(List.of("a", "b", "C")));
+        assertSame(path, ObjectPath.of("a").join(ObjectPath.of("b", "C")));
+        assertSame(path, ObjectPath.of("a", "b").append("C"));
+        assertSame(path.everythingButLast(), ObjectPath.of("a", "b"));
+        assertSame(ObjectPath.of("b", "C"), path.tail());
+        assertEquals("a", path.first());
+        assertEquals("C", path.last());
+        assertEquals("a/b/C", path.mkString("/"));
+        assertTrue(ObjectPath.of().isEmpty());
+        assertThrows(IllegalStateException.class, () -> ObjectPath.of().last());
+        assertThrows(NullPointerException.class, () -> ObjectPath.of("a", null));
+    }
+}
@@ -0,0 +1,118 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.model.Annotation;
+import org.karina.model.model.MethodModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleClassPointer;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.query.ClassQuery;
+import org.karina.model.query.FieldQuery;
+import org.karina.model.query.MethodQuery;
+import org.karina.model.typing.types.PrimitiveType;
+import org.karina.model.typing.types.Type;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTest {
+    private static final ClassPointer MARKER = SimpleModel.simpleClassPointer("a/Marker");
+
+    /// 100 classes `b/C0` to `b/C99` with the methods `run`, `get` and `m0` to `m9` and the field `value`,
+    /// `run` of every tenth class is annotated, `a/A` is annotated and has the methods `run` and `get`.
+    private static Model model() {
+        var builder = Model.builder();
+        builder.add(TestModels.classBuilder("a/A")
+                              .addAnnotation(new Annotation(true, MARKER, List.of()))
+                              .addMethod(TestModels.method("a/A", "run", Type.VOID))
+                              .addMethod(TestModels.method("a/A", "get", PrimitiveType.INT, PrimitiveType.LONG))
+                              .build());
+        for (var i = 0; i < 100; i++) {
+            var name = "b/C" + i;
+            var run = TestModels.method(name, "run", Type.VOID);
+            var classBuilder = TestModels.classBuilder(name)
+                                         .addMethod(i % 10 == 0 ? run.annotated(MARKER) : run)
+                                         .addMethod(TestModels.method(name, "get", PrimitiveType.INT, PrimitiveType.LONG))
+                                         .addField(TestModels.field(name, "value", PrimitiveType.INT));
+            for (var j = 0; j < 10; j++) {
+                classBuilder.addMethod(TestModels.method(name, "m" + j, Type.VOID, PrimitiveType.INT));
+            }
+            builder.add(classBuilder.build());
+        }
+        return builder.build();
+    }
+
+    private static Set<String> owners(List<? extends MethodModel> methods) {
+        return methods.stream()
+                      .map(method -> ((SimpleClassPointer) method.classPointer()).name())
+                      .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testClassQuery() {
+        var model = model();
+        assertEquals(101, ClassQuery.of(model).count());
+        assertEquals(100, ClassQuery.of(model).inPackage("b").count());
+        assertEquals(List.of(model.getClassPointer("a/A")), ClassQuery.of(model).annotatedWith(MARKER).pointers());
+        assertEquals(0, ClassQuery.of(model).annotatedWith(MARKER).inPackage("b").count());
+        assertEquals(1, ClassQuery.of(model).named("b/C5").methods().named("run").count());
+    }
+
+    @Test
+    public void testMemberIndexesNarrowCandidates() {
+        var model = model();
+        var tested = new AtomicInteger();
+
+        // the predicate only sees the candidates of the name index
+        var runs = MethodQuery.of(model).where(method -> tested.incrementAndGet() > 0).named("run").list();
+        assertEquals(101, runs.size());
+        assertEquals(101, tested.get());
+
+        tested.set(0);
+        var annotated = MethodQuery.of(model).where(method -> tested.incrementAndGet() > 0)
+                                   .named("run")
+                                   .annotatedWith(MARKER)
+                                   .list();
+        assertEquals(10, annotated.size());
+        assertEquals(10, tested.get());
+        assertSame(model.members().methodsAnnotatedWith(MARKER), model.members().methodsAnnotatedWith(MARKER));
+
+        tested.set(0);
+        var descriptors = model.descriptors();
+        var sizeBefore = descriptors.size();
+        var longGetters = MethodQuery.of(model).where(method -> tested.incrementAndGet() > 0)
+                                     .withDescriptor("(J)I")
+                                     .list();
+        assertEquals(101, longGetters.size());
+        assertEquals(101, tested.get());
+        assertTrue(MethodQuery.of(model).withDescriptor("(Lx/Missing;)V").list().isEmpty());
+        assertEquals(sizeBefore + 3, descriptors.size());
+    }
+
+    @Test
+    public void testClassConditionsOnIndexedMembers() {
+        var model = model();
+
+        // the class query narrows the annotated methods of the index
+        assertEquals(10, MethodQuery.of(model).annotatedWith(MARKER).count());
+        var fromC = ClassQuery.of(model).nameMatches(name -> name.endsWith("0")).methods().named("run").annotatedWith(MARKER);
+        assertEquals(10, fromC.count());
+        var single = ClassQuery.of(model).named("b/C10").methods().annotatedWith(MARKER).list();
+        assertEquals(Set.of("b/C10"), owners(single));
+        assertEquals(0, ClassQuery.of(model).inPackage("a").methods().annotatedWith(MARKER).count());
+
+        // a class condition without an index still restricts the members
+        var getters = ClassQuery.of(model).nameMatches(name -> name.startsWith("b/C1")).methods().named("get").list();
+        assertEquals(11, getters.size());
+
+        assertEquals(100, FieldQuery.of(model).named("value").count());
+        assertEquals(100, FieldQuery.of(model).withDescriptor("I").count());
+        assertEquals(1, ClassQuery.of(model).named("b/C3").fields().named("value").count());
+        assertEquals(0, FieldQuery.of(model).annotatedWith(MARKER).count());
+    }
+}
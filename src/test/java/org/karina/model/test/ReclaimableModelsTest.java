@@ -0,0 +1,132 @@
+package org.karina.model.test;
+
+import org.junit.jupiter.api.Test;
+import org.karina.model.exceptions.JarFileException;
+import org.karina.model.loading.jar.ModelLinker;
+import org.karina.model.loading.jar.ModelReader;
+import org.karina.model.loading.jar.ReclaimableModels;
+import org.karina.model.model.Annotation;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.typing.types.Type;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReclaimableModelsTest {
+
+    @Test
+    public void testReloadAfterReclaim() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "a/A", TestModels.classBytes("a/A", "java/lang/Object", null)
+        );
+        var linked = ModelLinker.DEFAULT.link(ModelReader.fromJar(jar));
+        var model = ReclaimableModels.of(linked);
+
+        var pointer = model.getClassPointer("a/A");
+        var classModel = model.getClass(pointer);
+        var original = linked.getClass(linked.getClassPointer("a/A"));
+        assertTrue(ReclaimableModels.isBodyLoaded(classModel));
+
+        assertEquals(2, ReclaimableModels.reclaim(model));
+        assertFalse(ReclaimableModels.isBodyLoaded(classModel));
+
+        assertEquals(original.annotations(), classModel.annotations());
+        assertEquals(original.fields(), classModel.fields());
+        assertEquals(original.methods(), classModel.methods());
+        assertTrue(ReclaimableModels.isBodyLoaded(classModel));
+        assertEquals(original.fingerprint(linked), classModel.fingerprint(model));
+    }
+
+    @Test
+    public void testReloadAnnotatedBody() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "a/A", annotatedClassBytes("a/A"),
+                "a/B", annotatedClassBytes("a/B")
+        );
+        var linked = ModelLinker.DEFAULT.link(ModelReader.fromJar(jar));
+        var model = ReclaimableModels.of(linked);
+        var a = model.getClass(model.getClassPointer("a/A"));
+        var b = model.getClass(model.getClassPointer("a/B"));
+
+        var marker = SimpleModel.simpleClassPointer("a/Marker");
+        var expected = List.of(
+                new Annotation(true, marker, List.of(
+                        new Annotation.Entry("count", new Annotation.Value.IntValue(3)),
+                        new Annotation.Entry("type", new Annotation.Value.ClassValue("Ljava/lang/String;")),
+                        new Annotation.Entry("policy", new Annotation.Value.EnumValue(
+                                SimpleModel.simpleClassPointer("a/Policy"),
+                                "KEEP"
+                        )),
+                        new Annotation.Entry("flags", new Annotation.Value.ArrayValue(List.of(
+                                new Annotation.Value.BooleanValue(true),
+                                new Annotation.Value.BooleanValue(false)
+                        ))),
+                        new Annotation.Entry("nested", new Annotation.Value.AnnotationValue(
+                                new Annotation(true, SimpleModel.simpleClassPointer("a/Nested"), List.of())
+                        ))
+                )),
+                new Annotation(false, SimpleModel.simpleClassPointer("a/Hidden"), List.of())
+        );
+        assertEquals(expected, a.annotations());
+
+        // both classes are read again from the same archive
+        assertEquals(3, ReclaimableModels.reclaim(model));
+        assertEquals(expected, a.annotations());
+        assertEquals(expected, b.annotations());
+        assertEquals(linked.getClass(linked.getClassPointer("a/B")).fingerprint(linked), b.fingerprint(model));
+    }
+
+    @Test
+    public void testMissingArchive() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null)
+        );
+        var model = ReclaimableModels.of(ModelLinker.DEFAULT.link(ModelReader.fromJar(jar)));
+        var classModel = model.getClass(model.getClassPointer("java/lang/Object"));
+
+        ReclaimableModels.reclaim(model);
+        Files.delete(jar);
+        assertThrows(JarFileException.ClassReloadException.class, classModel::methods);
+    }
+
+    @Test
+    public void testEditedClassesAreKept() throws IOException {
+        var jar = TestModels.jar(
+                "java/lang/Object", TestModels.classBytes("java/lang/Object", null, null),
+                "a/A", TestModels.classBytes("a/A", "java/lang/Object", null)
+        );
+        var linked = ModelLinker.DEFAULT.link(ModelReader.fromJar(jar));
+        var edited = linked.transaction()
+                           .addMethod(linked.getClassPointer("a/A"), TestModels.method("a/A", "run", Type.VOID))
+                           .commit();
+
+        var model = ReclaimableModels.of(edited);
+        var classModel = model.getClass(model.getClassPointer("a/A"));
+        // a reclaimable class holds its body until it is reclaimed
+        assertFalse(ReclaimableModels.isBodyLoaded(classModel));
+        assertEquals(1, ReclaimableModels.reclaim(model));
+        assertEquals(1, classModel.methods().size());
+    }
+
+    private static byte[] annotatedClassBytes(String name) {
+        var writer = new ClassWriter(0);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        var marker = writer.visitAnnotation("La/Marker;", true);
+        marker.visit("count", 3);
+        marker.visit("type", org.objectweb.asm.Type.getType("Ljava/lang/String;"));
+        marker.visitEnum("policy", "La/Policy;", "KEEP");
+        marker.visit("flags", new boolean[] {true, false});
+        marker.visitAnnotation("nested", "La/Nested;").visitEnd();
+        marker.visitEnd();
+        writer.visitAnnotation("La/Hidden;", false).visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
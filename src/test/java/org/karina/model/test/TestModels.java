@@ -0,0 +1,162 @@
+package org.karina.model.test;
+
+import org.jetbrains.annotations.Nullable;
+import org.karina.model.model.Annotation;
+import org.karina.model.model.ClassModel;
+import org.karina.model.model.FieldModel;
+import org.karina.model.model.GenericModel;
+import org.karina.model.model.MethodModel;
+import org.karina.model.model.Model;
+import org.karina.model.model.impl.SimpleModel;
+import org.karina.model.model.pointer.ClassPointer;
+import org.karina.model.model.pointer.FieldPointer;
+import org.karina.model.model.pointer.MethodPointer;
+import org.karina.model.typing.types.Type;
+import org.karina.model.util.ClassIdentifier;
+import org.karina.model.util.ObjectPath;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/// Small hand-built models and jars shared by the tests.
+final class TestModels {
+    static final ClassIdentifier IDENTIFIER = ClassIdentifier.of("test");
+
+    private TestModels() {}
+
+    static ClassModel.ClassModelBuilder classBuilder(String binaryName) {
+        return ClassModel.builder()
+                         .binaryName(binaryName)
+                         .path(ObjectPath.fromBinaryName(binaryName))
+                         .flags(Opcodes.ACC_PUBLIC)
+                         .identifier(IDENTIFIER);
+    }
+
+    static TestMethod method(String owner, String name, Type returnType, Type... parameterTypes) {
+        return new TestMethod(
+                SimpleModel.simpleClassPointer(owner),
+                name,
+                Opcodes.ACC_PUBLIC,
+                List.of(),
+                List.of(parameterTypes),
+                returnType
+        );
+    }
+
+    static TestField field(String owner, String name, Type type) {
+        return new TestField(SimpleModel.simpleClassPointer(owner), name, Opcodes.ACC_PUBLIC, type);
+    }
+
+    /// Writes a class without members, `superName` is `null` for `java/lang/Object`.
+    static byte[] classBytes(String name, @Nullable String superName, @Nullable String signature, String... interfaces) {
+        var writer = new ClassWriter(0);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, signature, superName, interfaces.length == 0 ? null : interfaces);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /// Writes a temporary jar containing the classes, as name and bytes pairs.
+    static Path jar(Object... entries) throws IOException {
+        var path = Files.createTempFile("karina-test", ".jar");
+        path.toFile().deleteOnExit();
+        try (var out = new JarOutputStream(Files.newOutputStream(path))) {
+            for (var i = 0; i < entries.length; i += 2) {
+                out.putNextEntry(new JarEntry(entries[i] + ".class"));
+                out.write((byte[]) entries[i + 1]);
+                out.closeEntry();
+            }
+        }
+        return path;
+    }
+
+    /// A method of primitive types, its pointer is resolved without a model.
+    record TestMethod(
+            ClassPointer classPointer,
+            String name,
+            int flags,
+            List<String> parameterNames,
+            List<? extends Type> parameterTypes,
+            Type returnType,
+            List<Annotation> annotations
+    ) implements MethodModel {
+
+        TestMethod(
+                ClassPointer classPointer,
+                String name,
+                int flags,
+                List<String> parameterNames,
+                List<? extends Type> parameterTypes,
+                Type returnType
+        ) {
+            this(classPointer, name, flags, parameterNames, parameterTypes, returnType, List.of());
+        }
+
+        /// @return a copy of this method annotated with the given annotation interface
+        TestMethod annotated(ClassPointer annotation) {
+            return new TestMethod(
+                    this.classPointer, this.name, this.flags, this.parameterNames, this.parameterTypes, this.returnType,
+                    List.of(new Annotation(true, annotation, List.of()))
+            );
+        }
+
+        @Override
+        public List<? extends GenericModel> generics() {
+            return List.of();
+        }
+
+        @Override
+        public List<? extends Type> exceptions() {
+            return List.of();
+        }
+
+        @Override
+        public @Nullable Annotation.Value annotationDefault() {
+            return null;
+        }
+
+        @Override
+        public MethodPointer pointer() {
+            return SimpleModel.simpleMethodPointer(this.classPointer, this.name, descriptor(Model.EMPTY));
+        }
+
+        @Override
+        public boolean hasInstructions() {
+            return true;
+        }
+    }
+
+    /// A field of a primitive type, its pointer is resolved without a model.
+    record TestField(ClassPointer classPointer, String name, int flags, Type type) implements FieldModel {
+
+        @Override
+        public boolean isRecordComponent() {
+            return false;
+        }
+
+        @Override
+        public int recordComponentIndex() {
+            return -1;
+        }
+
+        @Override
+        public FieldPointer pointer() {
+            return SimpleModel.simpleFieldPointer(this.classPointer, this.name, descriptor(Model.EMPTY));
+        }
+
+        @Override
+        public @Nullable Object defaultValue() {
+            return null;
+        }
+
+        @Override
+        public List<Annotation> annotations() {
+            return List.of();
+        }
+    }
+}